@@ -11,6 +11,8 @@ import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.StateOfBookingRequest;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +33,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingShortDto);
     }
 
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingShortDto> bookingShortDtos) {
+        return post("/batch", userId, bookingShortDtos);
+    }
+
     public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved.toString()
@@ -42,22 +48,34 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, StateOfBookingRequest state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getUserBookings(Long userId, StateOfBookingRequest state, Integer from, Integer size,
+                                                  String cursor) {
+        return get("?" + listingQuery(cursor), userId, listingParameters(state, from, size, cursor));
     }
 
     public ResponseEntity<Object> getBookingsForUserItems(Long userId, StateOfBookingRequest state,
-                                                          Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+                                                          Integer from, Integer size, String cursor) {
+        return get("/owner?" + listingQuery(cursor), userId, listingParameters(state, from, size, cursor));
+    }
+
+    public ResponseEntity<Object> getOwnerBookingSummary(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    private String listingQuery(String cursor) {
+        String query = "state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private Map<String, Object> listingParameters(StateOfBookingRequest state, Integer from, Integer size,
+                                                  String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
@@ -11,6 +11,7 @@ import ru.practicum.shareit.validate.BookingTimeValidator;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @RestController
 @Validated
@@ -18,6 +19,8 @@ import javax.validation.constraints.PositiveOrZero;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
     private final BookingTimeValidator bookingTimeValidator;
 
@@ -29,6 +32,25 @@ public class BookingController {
         return bookingClient.addBooking(userId, bookingShortDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createNewBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestBody final List<BookingShortDto> bookingShortDtos) {
+        if (bookingShortDtos == null || bookingShortDtos.isEmpty()) {
+            throw new IllegalArgumentException("Список бронирований не должен быть пустым");
+        }
+        if (bookingShortDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("За один запрос можно создать не более %d бронирований", MAX_BATCH_SIZE));
+        }
+        int nullIndex = bookingShortDtos.indexOf(null);
+        if (nullIndex >= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Бронирование с индексом %d не должно быть пустым", nullIndex));
+        }
+        log.info("Пользователь с id={} создал пакет из {} бронирований", userId, bookingShortDtos.size());
+        return bookingClient.addBookings(userId, bookingShortDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long bookingId,
@@ -56,12 +78,19 @@ public class BookingController {
                                                       final Integer from,
                                                   @RequestParam(value = "size", required = false, defaultValue = "10")
                                                       @Positive(message = "Значение 'size' должно быть положительным")
-                                                      final Integer size) {
+                                                      final Integer size,
+                                                  @RequestParam(value = "cursor", required = false) final String cursor) {
 
         StateOfBookingRequest state = StateOfBookingRequest.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Получены бронирования со статусом {} пользователя с id={}", state, userId);
-        return bookingClient.getUserBookings(userId, state, from, size);
+        return bookingClient.getUserBookings(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получена сводка бронирований вещей пользователя с id={}", userId);
+        return bookingClient.getOwnerBookingSummary(userId);
     }
 
     @GetMapping("/owner")
@@ -71,10 +100,12 @@ public class BookingController {
                                                               final Integer from,
                                                           @RequestParam(value = "size", required = false, defaultValue = "10")
                                                               @Positive(message = "Значение 'size' должно быть положительным")
-                                                              final Integer size) {
+                                                              final Integer size,
+                                                          @RequestParam(value = "cursor", required = false)
+                                                              final String cursor) {
         StateOfBookingRequest state = StateOfBookingRequest.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Получены бронирования со статусом {} вещей пользователя с id={}", state, userId);
-        return bookingClient.getBookingsForUserItems(userId, state, from, size);
+        return bookingClient.getBookingsForUserItems(userId, state, from, size, cursor);
     }
 }
\ No newline at end of file
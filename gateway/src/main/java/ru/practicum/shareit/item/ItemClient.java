@@ -3,14 +3,21 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -39,21 +46,69 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getUserItems(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getUserItems(Long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("?from={from}&size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public void streamItems(Long userId, OutputStream out) {
+        rest.execute("/stream", HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                },
+                response -> StreamUtils.copy(response.getBody(), out));
+    }
+
+    public ResponseEntity<Object> searchItem(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                             Integer from, Integer size, String engine) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        StringBuilder query = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        if (start != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            query.append("&start={start}&end={end}");
+        }
+        if (engine != null) {
+            parameters.put("engine", engine);
+            query.append("&engine={engine}");
+        }
+        return get(query.toString(), userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItems(Long userId, String prefix, Integer limit) {
         Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
+                "prefix", prefix,
+                "limit", limit
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getItemAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
-                "text", text,
                 "from", from,
-                "size", size
+                "to", to
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemComments(Long itemId, Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, parameters);
     }
 
     public ResponseEntity<Object> createItemComment(CommentShortDto commentShortDto,
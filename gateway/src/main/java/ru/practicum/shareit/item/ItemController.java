@@ -2,9 +2,12 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validate.Create;
@@ -13,6 +16,7 @@ import ru.practicum.shareit.validate.Update;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @RestController
@@ -52,25 +56,83 @@ public class ItemController {
                                                final Integer from,
                                                @RequestParam(value = "size", required = false, defaultValue = "10")
                                                    @Positive(message = "Значение 'size' должно быть положительным")
-                                                   final Integer size) {
+                                                   final Integer size,
+                                               @RequestParam(value = "cursor", required = false) final String cursor) {
         log.info("Получены вещи пользотваеля с id={}", userId);
-        return itemClient.getUserItems(userId, from, size);
+        return itemClient.getUserItems(userId, from, size, cursor);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestHeader("X-Sharer-User-Id") final Long userId) {
+        log.info("Пользователь с id={} запросил выгрузку каталога вещей", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> itemClient.streamItems(userId, out));
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItem(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                              @RequestParam("text") final String text,
+                                             @RequestParam(value = "start", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             final LocalDateTime start,
+                                             @RequestParam(value = "end", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             final LocalDateTime end,
                                              @RequestParam(value = "from", required = false, defaultValue = "0")
                                                  @PositiveOrZero(message = "Значение 'from' должно быть положительным")
                                                  final Integer from,
                                              @RequestParam(value = "size", required = false, defaultValue = "10")
                                                  @Positive(message = "Значение 'size' должно быть положительным")
-                                                 final Integer size) {
+                                                 final Integer size,
+                                             @RequestParam(value = "engine", required = false) final String engine) {
         if (text == null || text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new IllegalArgumentException("Период поиска свободных вещей указан некорректно");
+        }
         log.info("Пользователь с id={} выполнил поиск вещи {}", userId, text);
-        return itemClient.searchItem(userId, text, from, size);
+        return itemClient.searchItem(userId, text, start, end, from, size, engine);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                               @RequestParam("prefix") final String prefix,
+                                               @RequestParam(value = "limit", required = false, defaultValue = "10")
+                                               @Positive(message = "Значение 'limit' должно быть положительным")
+                                               final Integer limit) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        return itemClient.suggestItems(userId, prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable final Long itemId,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam("from")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      final LocalDateTime from,
+                                                      @RequestParam("to")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      final LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания");
+        }
+        log.info("Пользователем с id={} получено расписание доступности вещи с id={}", userId, itemId);
+        return itemClient.getItemAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(@PathVariable final Long itemId,
+                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(value = "cursor", required = false) final String cursor,
+                                                  @RequestParam(value = "size", required = false, defaultValue = "20")
+                                                  @Positive(message = "Значение 'size' должно быть положительным")
+                                                  final Integer size) {
+        log.info("Пользователем с id={} получены комментарии к вещи с id={}", userId, itemId);
+        return itemClient.getItemComments(itemId, userId, cursor, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @Validated
@@ -23,6 +28,12 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingShortDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createNewBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestBody final List<BookingShortDto> bookingShortDtos) {
+        return bookingService.createBookings(userId, bookingShortDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable Long bookingId,
@@ -38,22 +49,41 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "ALL")String state,
-                                                  @RequestParam(value = "from", required = false, defaultValue = "0")
-                                                      final Integer from,
-                                                  @RequestParam(value = "size", required = false, defaultValue = "10")
-                                                      final Integer size) {
-        return bookingService.getAllBookingsByUser(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL")String state,
+                                                            @RequestParam(value = "from", required = false, defaultValue = "0")
+                                                                final Integer from,
+                                                            @RequestParam(value = "size", required = false, defaultValue = "10")
+                                                                final Integer size,
+                                                            @RequestParam(value = "cursor", required = false)
+                                                                final String cursor) {
+        return withNextCursor(bookingService.getAllBookingsByUser(userId, state, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                          @RequestParam(defaultValue = "ALL")String state,
-                                                          @RequestParam(value = "from", required = false, defaultValue = "0")
-                                                              final Integer from,
-                                                          @RequestParam(value = "size", required = false, defaultValue = "10")
-                                                              final Integer size) {
-        return bookingService.getBookingsForUserItems(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(defaultValue = "ALL")String state,
+                                                                    @RequestParam(value = "from", required = false, defaultValue = "0")
+                                                                        final Integer from,
+                                                                    @RequestParam(value = "size", required = false, defaultValue = "10")
+                                                                        final Integer size,
+                                                                    @RequestParam(value = "cursor", required = false)
+                                                                        final String cursor) {
+        return withNextCursor(bookingService.getBookingsForUserItems(userId, state, from, size, cursor), size);
+    }
+
+    @GetMapping("/owner/summary")
+    public Map<StateOfBookingRequest, Long> getOwnerBookingSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getOwnerBookingSummary(userId);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
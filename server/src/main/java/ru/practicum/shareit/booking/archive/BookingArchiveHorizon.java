@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Component
+public class BookingArchiveHorizon {
+    private final int horizonDays;
+    private final boolean expiryEnabled;
+
+    public BookingArchiveHorizon(@Value("${shareit.booking.archive.horizon-days:180}") int horizonDays,
+                                 @Value("${shareit.booking.expiry.enabled:true}") boolean expiryEnabled) {
+        this.horizonDays = horizonDays;
+        this.expiryEnabled = expiryEnabled;
+    }
+
+    public LocalDateTime liveBoundary(LocalDateTime now) {
+        return YearMonth.from(now.minusDays(horizonDays)).atDay(1).atStartOfDay();
+    }
+
+    public LocalDateTime waitingBoundary(LocalDateTime now) {
+        return expiryEnabled ? liveBoundary(now) : null;
+    }
+}
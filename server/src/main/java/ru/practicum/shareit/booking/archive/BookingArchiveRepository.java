@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingArchiveRepository {
+    private static final String LIVE_PARTITION = "bookings_live";
+    private static final DateTimeFormatter PARTITION_BOUND = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<LocalDateTime> findOldestLiveEnd() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(end_date) FROM " + LIVE_PARTITION, Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    public boolean isArchived(YearMonth month) {
+        Boolean attached = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                "JOIN pg_class child ON child.oid = i.inhrelid " +
+                "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                "WHERE parent.relname = 'bookings' AND child.relname = ?)", Boolean.class, partitionOf(month));
+        return Boolean.TRUE.equals(attached);
+    }
+
+    @Transactional
+    public int archiveMonth(YearMonth month) {
+        String partition = partitionOf(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition +
+                " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + LIVE_PARTITION + " " +
+                        "WHERE end_date >= ? AND end_date < ? RETURNING *) " +
+                        "INSERT INTO " + partition + " SELECT * FROM moved",
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+        jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + partition +
+                " FOR VALUES FROM ('" + PARTITION_BOUND.format(from) + "') TO ('" + PARTITION_BOUND.format(to) + "')");
+        return moved;
+    }
+
+    private static String partitionOf(YearMonth month) {
+        return String.format("bookings_archive_%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true")
+public class BookingArchiveScheduler {
+    private final BookingArchiveRepository archiveRepository;
+    private final BookingArchiveHorizon archiveHorizon;
+
+    @Scheduled(cron = "${shareit.booking.archive.cron:0 30 3 * * *}")
+    public void archiveFinishedBookings() {
+        YearMonth liveSince = YearMonth.from(archiveHorizon.liveBoundary(LocalDateTime.now()));
+        Optional<LocalDateTime> oldestLiveEnd = archiveRepository.findOldestLiveEnd();
+        if (oldestLiveEnd.isEmpty()) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(oldestLiveEnd.get()); month.isBefore(liveSince); month = month.plusMonths(1)) {
+            if (archiveRepository.isArchived(month)) {
+                log.info("Архивная секция за {} уже подключена", month);
+                continue;
+            }
+            int moved = archiveRepository.archiveMonth(month);
+            log.info("В архивную секцию за {} перенесено {} завершенных бронирований", month, moved);
+        }
+    }
+}
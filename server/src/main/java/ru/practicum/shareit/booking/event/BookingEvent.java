@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class BookingEvent {
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long bookerId;
+    private final Long ownerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus previousStatus;
+    private final BookingStatus status;
+}
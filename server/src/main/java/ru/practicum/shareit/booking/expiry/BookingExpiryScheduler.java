@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryScheduler {
+    private final BookingService bookingService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter expiredCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpiryScheduler(BookingService bookingService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                                  @Value("${shareit.booking.expiry.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("Количество бронирований, переведенных в статус EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Возраст самого старого просроченного неподтвержденного бронирования")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.fixed-delay-ms:60000}",
+            initialDelayString = "${shareit.booking.expiry.initial-delay-ms:60000}")
+    public void expireStaleBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int expired = bookingService.expireStaleBookings(now, batchSize);
+            expiredCounter.increment(expired);
+            total += expired;
+            if (expired < batchSize) {
+                break;
+            }
+        }
+        lagSeconds.set(bookingService.findOldestStaleBookingStart(now)
+                .map(start -> Duration.between(start, now).getSeconds())
+                .orElse(0L));
+        if (total > 0) {
+            log.info("Истекло {} неподтвержденных бронирований, отставание {} с", total, lagSeconds.get());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read model активных бронирований по вещам в памяти одного экземпляра сервиса. Обновляется только событиями
+ * этого экземпляра, поэтому может отставать от базы: подходит для подсказок (свободные окна), но не для проверок,
+ * от которых зависит корректность, таких как пересечение бронирований.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusIn(ACTIVE_STATUSES);
+        Map<Long, ItemTimeline> rebuilt = new HashMap<>();
+        int from = 0;
+        while (from < intervals.size()) {
+            Long itemId = intervals.get(from).getItemId();
+            int to = from;
+            while (to < intervals.size() && intervals.get(to).getItemId().equals(itemId)) {
+                to++;
+            }
+            rebuilt.put(itemId, toTimeline(intervals.subList(from, to)));
+            from = to;
+        }
+        timelines.clear();
+        timelines.putAll(rebuilt);
+        log.info("Индекс интервалов бронирований построен: {} бронирований, {} вещей", intervals.size(), rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        boolean wasActive = event.getPreviousStatus() != null && ACTIVE_STATUSES.contains(event.getPreviousStatus());
+        boolean isActive = ACTIVE_STATUSES.contains(event.getStatus());
+        if (!wasActive && isActive) {
+            add(event.getItemId(), event.getBookingId(), event.getBookerId(), event.getStart(), event.getEnd(),
+                    event.getStatus());
+        } else if (wasActive && !isActive) {
+            remove(event.getItemId(), event.getBookingId());
+        } else if (isActive) {
+            timelines.computeIfPresent(event.getItemId(),
+                    (id, timeline) -> timeline.withStatus(event.getBookingId(), event.getStatus()));
+        }
+    }
+
+    public boolean hasBookings(Long itemId) {
+        return timelines.containsKey(itemId);
+    }
+
+    public BookingShortDto lastBooking(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.getOrDefault(itemId, ItemTimeline.EMPTY);
+        int position = timeline.lastStartedBefore(toEpochMicro(now));
+        return position < 0 ? null : toBookingShortDto(itemId, timeline, position);
+    }
+
+    public BookingShortDto nextBooking(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.getOrDefault(itemId, ItemTimeline.EMPTY);
+        int position = timeline.firstStartedAfter(toEpochMicro(now));
+        return position < timeline.size() ? toBookingShortDto(itemId, timeline, position) : null;
+    }
+
+    public List<AvailabilityWindowDto> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long[] windows = timelines.getOrDefault(itemId, ItemTimeline.EMPTY).freeWindows(toEpochMicro(from), toEpochMicro(to));
+        List<AvailabilityWindowDto> result = new ArrayList<>(windows.length / 2);
+        for (int i = 0; i < windows.length; i += 2) {
+            result.add(new AvailabilityWindowDto(toLocalDateTime(windows[i]), toLocalDateTime(windows[i + 1])));
+        }
+        return result;
+    }
+
+    public void add(Long itemId, Long bookingId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                    BookingStatus status) {
+        timelines.compute(itemId, (id, timeline) -> (timeline == null ? ItemTimeline.EMPTY : timeline)
+                .with(bookingId, toEpochMicro(start), toEpochMicro(end), bookerId, status));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        timelines.computeIfPresent(itemId, (id, timeline) -> {
+            ItemTimeline updated = timeline.without(bookingId);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    static long toEpochMicro(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / NANOS_PER_MICRO;
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMicro) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicro, MICROS_PER_SECOND),
+                (int) Math.floorMod(epochMicro, MICROS_PER_SECOND) * NANOS_PER_MICRO, ZoneOffset.UTC);
+    }
+
+    private static BookingShortDto toBookingShortDto(Long itemId, ItemTimeline timeline, int position) {
+        return BookingShortDto.builder()
+                .id(timeline.id(position))
+                .start(toLocalDateTime(timeline.start(position)))
+                .end(toLocalDateTime(timeline.end(position)))
+                .itemId(itemId)
+                .bookerId(timeline.bookerId(position))
+                .status(timeline.status(position).name())
+                .build();
+    }
+
+    private static ItemTimeline toTimeline(List<BookingInterval> intervals) {
+        long[] ids = new long[intervals.size()];
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        long[] bookerIds = new long[intervals.size()];
+        BookingStatus[] statuses = new BookingStatus[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            BookingInterval interval = intervals.get(i);
+            ids[i] = interval.getId();
+            starts[i] = toEpochMicro(interval.getStart());
+            ends[i] = toEpochMicro(interval.getEnd());
+            bookerIds[i] = interval.getBookerId();
+            statuses[i] = interval.getStatus();
+        }
+        return new ItemTimeline(ids, starts, ends, bookerIds, statuses);
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking.index;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Arrays;
+
+final class ItemTimeline {
+    static final ItemTimeline EMPTY = new ItemTimeline(new long[0], new long[0], new long[0], new long[0],
+            new BookingStatus[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] bookerIds;
+    private final BookingStatus[] statuses;
+    private final long[] maxEnds;
+
+    ItemTimeline(long[] ids, long[] starts, long[] ends, long[] bookerIds, BookingStatus[] statuses) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.bookerIds = bookerIds;
+        this.statuses = statuses;
+        this.maxEnds = new long[ends.length];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            maxEnd = Math.max(maxEnd, ends[i]);
+            maxEnds[i] = maxEnd;
+        }
+    }
+
+    long[] freeWindows(long from, long to) {
+        long[] windows = new long[2 * (ids.length + 1)];
+        int count = 0;
+        long cursor = from;
+        for (int i = firstMaxEndAfter(from); i < ids.length && starts[i] < to; i++) {
+            if (starts[i] > cursor) {
+                windows[count++] = cursor;
+                windows[count++] = starts[i];
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            windows[count++] = cursor;
+            windows[count++] = to;
+        }
+        return Arrays.copyOf(windows, count);
+    }
+
+    int lastStartedBefore(long moment) {
+        return firstStartNotBefore(moment) - 1;
+    }
+
+    int firstStartedAfter(long moment) {
+        return firstStartNotBefore(moment + 1);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    long id(int position) {
+        return ids[position];
+    }
+
+    long start(int position) {
+        return starts[position];
+    }
+
+    long end(int position) {
+        return ends[position];
+    }
+
+    long bookerId(int position) {
+        return bookerIds[position];
+    }
+
+    BookingStatus status(int position) {
+        return statuses[position];
+    }
+
+    ItemTimeline with(long id, long start, long end, long bookerId, BookingStatus status) {
+        int position = firstStartNotBefore(start);
+        while (position < ids.length && starts[position] == start && ids[position] < id) {
+            position++;
+        }
+        return new ItemTimeline(insert(ids, position, id), insert(starts, position, start),
+                insert(ends, position, end), insert(bookerIds, position, bookerId), insert(statuses, position, status));
+    }
+
+    ItemTimeline withStatus(long id, BookingStatus status) {
+        int position = positionOf(id);
+        if (position < 0 || statuses[position] == status) {
+            return this;
+        }
+        BookingStatus[] updated = statuses.clone();
+        updated[position] = status;
+        return new ItemTimeline(ids, starts, ends, bookerIds, updated);
+    }
+
+    ItemTimeline without(long id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            return this;
+        }
+        return new ItemTimeline(remove(ids, position), remove(starts, position), remove(ends, position),
+                remove(bookerIds, position), remove(statuses, position));
+    }
+
+    private int positionOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int firstStartNotBefore(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstMaxEndAfter(long value) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] source, int position, long value) {
+        long[] result = Arrays.copyOf(source, source.length + 1);
+        System.arraycopy(source, position, result, position + 1, source.length - position);
+        result[position] = value;
+        return result;
+    }
+
+    private static BookingStatus[] insert(BookingStatus[] source, int position, BookingStatus value) {
+        BookingStatus[] result = Arrays.copyOf(source, source.length + 1);
+        System.arraycopy(source, position, result, position + 1, source.length - position);
+        result[position] = value;
+        return result;
+    }
+
+    private static long[] remove(long[] source, int position) {
+        long[] result = new long[source.length - 1];
+        System.arraycopy(source, 0, result, 0, position);
+        System.arraycopy(source, position + 1, result, position, source.length - position - 1);
+        return result;
+    }
+
+    private static BookingStatus[] remove(BookingStatus[] source, int position) {
+        BookingStatus[] result = new BookingStatus[source.length - 1];
+        System.arraycopy(source, 0, result, 0, position);
+        System.arraycopy(source, position + 1, result, position, source.length - position - 1);
+        return result;
+    }
+}
@@ -4,8 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.NearestBooking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -39,6 +41,30 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingShortDto toShortBookingDto(NearestBooking booking) {
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingEvent toBookingEvent(Booking booking, BookingStatus previousStatus) {
+        return BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .previousStatus(previousStatus)
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingShortDto bookingShortDto) {
         return Booking.builder()
                 .id(bookingShortDto.getId())
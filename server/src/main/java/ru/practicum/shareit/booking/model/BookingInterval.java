@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public interface BookingInterval {
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getBookerId();
+
+    BookingStatus getStatus();
+}
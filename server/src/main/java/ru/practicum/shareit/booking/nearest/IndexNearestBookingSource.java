@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.nearest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = NearestBookingSource.PROPERTY, havingValue = "index")
+public class IndexNearestBookingSource implements NearestBookingSource {
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    @Override
+    public Map<Long, NearestBookings> findNearest(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, NearestBookings> nearest = new HashMap<>();
+        for (Long itemId : itemIds) {
+            nearest.put(itemId, new NearestBookings(bookingIntervalIndex.lastBooking(itemId, now),
+                    bookingIntervalIndex.nextBooking(itemId, now)));
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.nearest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface NearestBookingSource {
+    String PROPERTY = "shareit.items.nearest-bookings.source";
+
+    Map<Long, NearestBookings> findNearest(Collection<Long> itemIds, LocalDateTime now);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.nearest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+@Data
+@AllArgsConstructor
+public class NearestBookings {
+    public static final NearestBookings NONE = new NearestBookings(null, null);
+
+    private final BookingShortDto last;
+    private final BookingShortDto next;
+}
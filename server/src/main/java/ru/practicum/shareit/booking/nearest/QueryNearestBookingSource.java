@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.nearest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = NearestBookingSource.PROPERTY, havingValue = "query", matchIfMissing = true)
+public class QueryNearestBookingSource implements NearestBookingSource {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Map<Long, NearestBookings> findNearest(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, NearestBookings> nearest = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return nearest;
+        }
+        for (NearestBooking booking : bookingRepository.findNearestBookings(itemIds, now)) {
+            BookingShortDto dto = BookingMapper.toShortBookingDto(booking);
+            NearestBookings current = nearest.getOrDefault(booking.getItemId(), NearestBookings.NONE);
+            nearest.put(booking.getItemId(), booking.getStart().isBefore(now)
+                    ? new NearestBookings(dto, current.getNext())
+                    : new NearestBookings(current.getLast(), dto));
+        }
+        return nearest;
+    }
+}
@@ -2,26 +2,106 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookerStart;
+import ru.practicum.shareit.booking.model.ItemBookingCount;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.booking.model.OwnerBookingFact;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findByItem(Item item);
+    @Query("SELECT MIN(b.start) FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.booker.id = :bookerId " +
+            "AND b.status NOT IN ('REJECTED')")
+    Optional<LocalDateTime> findEarliestStart(Long itemId, Long bookerId);
 
-    List<Booking> findByBooker(User user, Pageable pageable);
-
-    List<Booking> findByItem_Owner(User user, Pageable pageable);
+    @Query("SELECT b.item.id AS itemId, b.booker.id AS bookerId, MIN(b.start) AS start FROM Booking b " +
+            "WHERE b.status NOT IN ('REJECTED') " +
+            "GROUP BY b.item.id, b.booker.id")
+    List<ItemBookerStart> findEarliestStarts();
 
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
             "WHERE b.item = :item " +
-            "AND b.booker = :booker " +
-            "AND b.status NOT IN ('REJECTED') " +
-            "AND b.start <= :start")
-    boolean existsBookingByItemAndBookerAndStatusNotAndStart(Item item, User booker, LocalDateTime start);
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start < :end " +
+            "AND b.end > :start")
+    boolean existsOverlappingBooking(Item item, LocalDateTime start, LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(Long bookingId, Long ownerId, BookingStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.status = 'WAITING' " +
+            "AND b.start < :now " +
+            "ORDER BY b.start, b.id")
+    List<Booking> findStaleWaitingForUpdate(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT MIN(b.start) FROM Booking b " +
+            "WHERE b.status = 'WAITING' " +
+            "AND b.start < :now")
+    Optional<LocalDateTime> findOldestStaleWaitingStart(LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end, " +
+            "b.booker.id AS bookerId, b.status AS status FROM Booking b " +
+            "WHERE b.status IN :statuses " +
+            "ORDER BY b.item.id, b.start, b.id")
+    List<BookingInterval> findIntervalsByStatusIn(Collection<BookingStatus> statuses);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end, " +
+            "b.booker.id AS bookerId, b.status AS status FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :before " +
+            "AND b.end > :after " +
+            "ORDER BY b.item.id, b.start, b.id")
+    List<BookingInterval> findIntervalsOverlapping(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                                   LocalDateTime after, LocalDateTime before);
+
+    @Query(nativeQuery = true, value = "SELECT ranked.id AS \"id\", ranked.item_id AS \"itemId\", " +
+            "ranked.booker_id AS \"bookerId\", ranked.start_date AS \"start\", ranked.end_date AS \"end\", " +
+            "ranked.status AS \"status\" " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < :now " +
+            "ORDER BY b.start_date DESC, b.id DESC) AS from_latest, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < :now " +
+            "ORDER BY b.start_date, b.id) AS from_earliest " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) " +
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start_date <> :now) ranked " +
+            "WHERE (ranked.start_date < :now AND ranked.from_latest = 1) " +
+            "OR (ranked.start_date > :now AND ranked.from_earliest = 1)")
+    List<NearestBooking> findNearestBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b.item.owner.id AS ownerId, b.start AS start, b.end AS end, b.status AS status FROM Booking b")
+    List<OwnerBookingFact> findOwnerBookingFacts();
+
+    @Query("SELECT b.item.id AS itemId, COUNT(b) AS bookings FROM Booking b " +
+            "WHERE b.status = 'APPROVED' " +
+            "GROUP BY b.item.id")
+    List<ItemBookingCount> findApprovedBookingCounts();
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end, " +
+            "b.booker.id AS bookerId, b.status AS status FROM Booking b " +
+            "WHERE b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start > :since")
+    List<BookingInterval> findActiveIntervalsStartedAfter(LocalDateTime since);
 }
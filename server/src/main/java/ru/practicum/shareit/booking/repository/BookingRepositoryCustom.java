@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findByBookerAndState(User booker, StateOfBookingRequest state, LocalDateTime now,
+                                       LocalDateTime liveSince, KeysetCursor after, Pageable pageable);
+
+    List<Booking> findByItemOwnerAndState(User owner, StateOfBookingRequest state, LocalDateTime now,
+                                          LocalDateTime liveSince, KeysetCursor after, Pageable pageable);
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findByBookerAndState(User booker, StateOfBookingRequest state, LocalDateTime now,
+                                              LocalDateTime liveSince, KeysetCursor after, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        booking.fetch("item");
+        booking.fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(booking.get("booker"), booker));
+        predicates.addAll(statePredicates(cb, booking, state, now, liveSince));
+        if (after != null) {
+            predicates.add(afterCursor(cb, booking, after));
+        }
+        return findPage(cb, query, booking, predicates, pageable);
+    }
+
+    @Override
+    public List<Booking> findByItemOwnerAndState(User owner, StateOfBookingRequest state, LocalDateTime now,
+                                                 LocalDateTime liveSince, KeysetCursor after, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        @SuppressWarnings("unchecked")
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(item.get("owner"), owner));
+        predicates.addAll(statePredicates(cb, booking, state, now, liveSince));
+        if (after != null) {
+            predicates.add(afterCursor(cb, booking, after));
+        }
+        return findPage(cb, query, booking, predicates, pageable);
+    }
+
+    private List<Booking> findPage(CriteriaBuilder cb, CriteriaQuery<Booking> query, Root<Booking> booking,
+                                   List<Predicate> predicates, Pageable pageable) {
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private Predicate afterCursor(CriteriaBuilder cb, Root<Booking> booking, KeysetCursor after) {
+        Path<LocalDateTime> start = booking.get("start");
+        return cb.or(cb.lessThan(start, after.getPosition()),
+                cb.and(cb.equal(start, after.getPosition()), cb.lessThan(booking.get("id"), after.getId())));
+    }
+
+    private List<Predicate> statePredicates(CriteriaBuilder cb, Root<Booking> booking,
+                                            StateOfBookingRequest state, LocalDateTime now, LocalDateTime liveSince) {
+        List<Predicate> predicates = new ArrayList<>();
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(booking.<LocalDateTime>get("start"), now));
+                predicates.add(cb.greaterThan(booking.<LocalDateTime>get("end"), now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(booking.<LocalDateTime>get("end"), now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(booking.<LocalDateTime>get("start"), now));
+                predicates.add(cb.greaterThan(booking.<LocalDateTime>get("end"), now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                if (liveSince != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(booking.<LocalDateTime>get("end"), liveSince));
+                }
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+        }
+        return predicates;
+    }
+}
@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingShortDto bookingShortDtoDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingShortDto> bookingShortDtos);
+
     BookingDto approveBooking(Long bookingId, Long ownerId, Boolean isApproved);
 
     BookingDto getBooking(Long bookingId, Long userId);
 
-    Collection<BookingDto> getAllBookingsByUser(Long userId, String state, Integer from, Integer size);
+    List<BookingDto> getAllBookingsByUser(Long userId, String state, Integer from, Integer size, String cursor);
+
+    List<BookingDto> getBookingsForUserItems(Long userId, String state, Integer from, Integer size, String cursor);
+
+    Map<StateOfBookingRequest, Long> getOwnerBookingSummary(Long userId);
+
+    int expireStaleBookings(LocalDateTime now, int limit);
 
-    Collection<BookingDto> getBookingsForUserItems(Long userId, String state, Integer from, Integer size);
+    Optional<LocalDateTime> findOldestStaleBookingStart(LocalDateTime now);
 }
@@ -2,18 +2,24 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.archive.BookingArchiveHorizon;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.OwnerBookingSummaryIndex;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -21,7 +27,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -32,13 +37,16 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingArchiveHorizon archiveHorizon;
+    private final OwnerBookingSummaryIndex ownerBookingSummaryIndex;
 
     @Override
     @Transactional
     public BookingDto createBooking(Long userId, BookingShortDto bookingShortDto) {
         User booker = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
-        Item item = itemRepository.findById(bookingShortDto.getItemId()).orElseThrow(() ->
+        Item item = itemRepository.findByIdForUpdate(bookingShortDto.getItemId()).orElseThrow(() ->
                 new ItemNotFoundException(String.format("Вещь c id=%d не найдена", bookingShortDto.getItemId())));
         if (!item.getAvailable()) {
             throw new BookingException("Данная вещь недоступна для бронирования!");
@@ -46,29 +54,71 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new BookingNotFoundException("Нелья сделать бронирование на собственную вещь");
         }
+        if (bookingRepository.existsOverlappingBooking(item, bookingShortDto.getStart(), bookingShortDto.getEnd())) {
+            throw new BookingException("Вещь уже забронирована на указанные даты");
+        }
         Booking booking = BookingMapper.toBooking(bookingShortDto);
         booking.setBooker(booker);
         booking.setItem(item);
         bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingMapper.toBookingEvent(booking, null));
         log.info("Пользователь с id={} забронировал вещь с id={}", booker.getId(), item.getId());
         return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     @Transactional
-    public BookingDto approveBooking(Long bookingId, Long ownerId, Boolean isApproved) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-        Booking booking = bookingOptional.orElseThrow(() ->
-                new BookingNotFoundException(String.format("Бронирование с id=%d не найдено", bookingId)));
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingShortDto> bookingShortDtos) {
+        User booker = userRepository.findById(userId).orElseThrow(() ->
+                new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
+        Set<Long> itemIds = bookingShortDtos.stream().filter(Objects::nonNull).map(BookingShortDto::getItemId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllByIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        Map<Long, List<BookingInterval>> reserved = findReservedIntervals(items.keySet(), bookingShortDtos);
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BookingException("Бронирование было подтверждено ранее или отменено");
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> accepted = new HashMap<>();
+        String[] errors = new String[bookingShortDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingShortDtos.size(); i++) {
+            BookingShortDto bookingShortDto = bookingShortDtos.get(i);
+            Item item = bookingShortDto == null ? null : items.get(bookingShortDto.getItemId());
+            errors[i] = validateBatchEntry(bookingShortDto, item, userId, now, reserved, accepted);
+            if (errors[i] == null) {
+                Booking booking = BookingMapper.toBooking(bookingShortDto);
+                booking.setBooker(booker);
+                booking.setItem(item);
+                accepted.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+                bookings.add(booking);
+            }
         }
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new BookingNotFoundException(String.format("Пользователь с id=%d не является владельцем вещи с бронированием id=%d", ownerId, bookingId));
+        bookingRepository.saveAll(bookings);
+        bookings.forEach(booking -> eventPublisher.publishEvent(BookingMapper.toBookingEvent(booking, null)));
+        log.info("Пользователь с id={} создал {} бронирований из {}", userId, bookings.size(), bookingShortDtos.size());
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingShortDtos.size());
+        Iterator<Booking> created = bookings.iterator();
+        for (int i = 0; i < bookingShortDtos.size(); i++) {
+            results.add(BookingBatchResultDto.builder()
+                    .index(i)
+                    .booking(errors[i] == null ? BookingMapper.toBookingDto(created.next()) : null)
+                    .error(errors[i])
+                    .build());
         }
-        booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public BookingDto approveBooking(Long bookingId, Long ownerId, Boolean isApproved) {
+        BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, ownerId, status) == 0) {
+            throw explainRejectedStatusUpdate(bookingId, ownerId);
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+                new BookingNotFoundException(String.format("Бронирование с id=%d не найдено", bookingId)));
+        eventPublisher.publishEvent(BookingMapper.toBookingEvent(booking, BookingStatus.WAITING));
         log.info("Пользователь с id={} подтвердил бронирование вещи с id={}", ownerId, bookingId);
 
         return BookingMapper.toBookingDto(booking);
@@ -86,49 +136,118 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingDto> getAllBookingsByUser(Long userId, String state, Integer from, Integer size) {
+    public List<BookingDto> getAllBookingsByUser(Long userId, String state, Integer from, Integer size, String cursor) {
         StateOfBookingRequest stateIn = getState(state);
         User user = userRepository.findById(userId).orElseThrow();
 
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> userBookings = bookingRepository.findByBooker(user, page);
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        PageRequest page = after == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> userBookings = bookingRepository.findByBookerAndState(user, stateIn, now,
+                archiveHorizon.waitingBoundary(now), after, page);
         log.info("Список всех бронирований со статусом {} пользователя с id={} успешно получен", state, userId);
-        return getBookingsByState(userBookings, stateIn).stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return userBookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     @Override
-    public Collection<BookingDto> getBookingsForUserItems(Long userId, String state, Integer from, Integer size) {
+    public List<BookingDto> getBookingsForUserItems(Long userId, String state, Integer from, Integer size, String cursor) {
         StateOfBookingRequest stateIn = getState(state);
         User user = userRepository.findById(userId).orElseThrow();
 
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> userBookings = bookingRepository.findByItem_Owner(user, page);
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        PageRequest page = after == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> userBookings = bookingRepository.findByItemOwnerAndState(user, stateIn, now,
+                archiveHorizon.waitingBoundary(now), after, page);
         log.info("Список бронирований со статусом {} для вещей пользователя с id={} успешно получен", state, userId);
-        return getBookingsByState(userBookings, stateIn).stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return userBookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
-    private Collection<Booking> getBookingsByState(List<Booking> allBookings, StateOfBookingRequest state) {
-        Stream<Booking> bookingStream = allBookings.stream();
+    @Override
+    public Map<StateOfBookingRequest, Long> getOwnerBookingSummary(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId));
+        }
+        log.info("Сводка бронирований вещей пользователя с id={} успешно получена", userId);
         LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case CURRENT:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isBefore(now) &&
-                        booking.getEnd().isAfter(now));
-                break;
-            case PAST:
-                bookingStream = bookingStream.filter(booking -> booking.getEnd().isBefore(now));
-                break;
-            case FUTURE:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isAfter(now));
-                break;
-            case WAITING:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.WAITING));
-                break;
-            case REJECTED:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED));
-                break;
-        }
-        return bookingStream.sorted(Comparator.comparing(Booking::getStart).reversed()).collect(Collectors.toList());
+        return ownerBookingSummaryIndex.summary(userId, now, archiveHorizon.waitingBoundary(now));
+    }
+
+    @Override
+    @Transactional
+    public int expireStaleBookings(LocalDateTime now, int limit) {
+        List<Booking> staleBookings = bookingRepository.findStaleWaitingForUpdate(now, PageRequest.of(0, limit));
+        if (staleBookings.isEmpty()) {
+            return 0;
+        }
+        itemRepository.findAllById(staleBookings.stream().map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        for (Booking booking : staleBookings) {
+            booking.setStatus(BookingStatus.EXPIRED);
+            eventPublisher.publishEvent(BookingMapper.toBookingEvent(booking, BookingStatus.WAITING));
+        }
+        log.info("{} неподтвержденных бронирований переведены в статус {}", staleBookings.size(), BookingStatus.EXPIRED);
+        return staleBookings.size();
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestStaleBookingStart(LocalDateTime now) {
+        return bookingRepository.findOldestStaleWaitingStart(now);
+    }
+
+    private RuntimeException explainRejectedStatusUpdate(Long bookingId, Long ownerId) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+                new BookingNotFoundException(String.format("Бронирование с id=%d не найдено", bookingId)));
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            return new BookingException("Бронирование было подтверждено ранее или отменено");
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return new BookingNotFoundException(String.format("Пользователь с id=%d не является владельцем вещи с бронированием id=%d", ownerId, bookingId));
+        }
+        return new BookingConflictException("Бронирование было изменено другим запросом");
+    }
+
+    private Map<Long, List<BookingInterval>> findReservedIntervals(Collection<Long> itemIds,
+                                                                    List<BookingShortDto> bookingShortDtos) {
+        LocalDateTime after = null;
+        LocalDateTime before = null;
+        for (BookingShortDto bookingShortDto : bookingShortDtos) {
+            if (bookingShortDto != null && bookingShortDto.getStart() != null && bookingShortDto.getEnd() != null) {
+                after = after == null || bookingShortDto.getStart().isBefore(after) ? bookingShortDto.getStart() : after;
+                before = before == null || bookingShortDto.getEnd().isAfter(before) ? bookingShortDto.getEnd() : before;
+            }
+        }
+        if (itemIds.isEmpty() || after == null) {
+            return Collections.emptyMap();
+        }
+        return bookingRepository.findIntervalsOverlapping(itemIds, BookingIntervalIndex.ACTIVE_STATUSES, after, before)
+                .stream().collect(Collectors.groupingBy(BookingInterval::getItemId));
+    }
+
+    private String validateBatchEntry(BookingShortDto bookingShortDto, Item item, Long userId, LocalDateTime now,
+                                      Map<Long, List<BookingInterval>> reserved, Map<Long, List<Booking>> accepted) {
+        if (bookingShortDto == null) {
+            return "Бронирование не задано";
+        }
+        if (item == null) {
+            return String.format("Вещь c id=%d не найдена", bookingShortDto.getItemId());
+        }
+        LocalDateTime start = bookingShortDto.getStart();
+        LocalDateTime end = bookingShortDto.getEnd();
+        if (start == null || end == null || !start.isBefore(end) || start.isBefore(now)) {
+            return "Время бронирования указано некорректно";
+        }
+        if (!item.getAvailable()) {
+            return "Данная вещь недоступна для бронирования!";
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            return "Нелья сделать бронирование на собственную вещь";
+        }
+        boolean overlaps = reserved.getOrDefault(item.getId(), Collections.emptyList()).stream()
+                .anyMatch(interval -> interval.getStart().isBefore(end) && interval.getEnd().isAfter(start)) ||
+                accepted.getOrDefault(item.getId(), Collections.emptyList()).stream()
+                        .anyMatch(booking -> booking.getStart().isBefore(end) && booking.getEnd().isAfter(start));
+        return overlaps ? "Вещь уже забронирована на указанные даты" : null;
     }
 
     private StateOfBookingRequest getState(String state) {
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.summary;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+final class OwnerBookingCounters {
+    private long[] starts;
+    private long[] ends;
+    private int size;
+    private long[] waitingEnds = new long[0];
+    private int waitingSize;
+    private final long[] statusCounts = new long[BookingStatus.values().length];
+
+    OwnerBookingCounters() {
+        this(new long[0], new long[0]);
+    }
+
+    OwnerBookingCounters(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        this.size = starts.length;
+        Arrays.sort(this.starts);
+        Arrays.sort(this.ends);
+    }
+
+    synchronized void add(long start, long end, BookingStatus status) {
+        starts = insertSorted(starts, size, start);
+        ends = insertSorted(ends, size, end);
+        size++;
+        countStatus(end, status);
+    }
+
+    synchronized void countStatus(long end, BookingStatus status) {
+        statusCounts[status.ordinal()]++;
+        if (status == BookingStatus.WAITING) {
+            waitingEnds = insertSorted(waitingEnds, waitingSize, end);
+            waitingSize++;
+        }
+    }
+
+    synchronized void changeStatus(long end, BookingStatus from, BookingStatus to) {
+        statusCounts[from.ordinal()]--;
+        if (from == BookingStatus.WAITING) {
+            removeSorted(waitingEnds, waitingSize, end);
+            waitingSize--;
+        }
+        countStatus(end, to);
+    }
+
+    synchronized Map<StateOfBookingRequest, Long> summary(long now, long liveSince) {
+        Map<StateOfBookingRequest, Long> summary = new EnumMap<>(StateOfBookingRequest.class);
+        int startedBefore = lowerBound(starts, size, now);
+        int startedNotAfter = upperBound(starts, size, now);
+        int endedBefore = lowerBound(ends, size, now);
+        int endedNotAfter = upperBound(ends, size, now);
+        summary.put(StateOfBookingRequest.ALL, (long) size);
+        summary.put(StateOfBookingRequest.CURRENT, (long) Math.max(0, startedBefore - endedNotAfter));
+        summary.put(StateOfBookingRequest.PAST, (long) endedBefore);
+        summary.put(StateOfBookingRequest.FUTURE, (long) (size - startedNotAfter));
+        int waitingEndedBefore = lowerBound(waitingEnds, waitingSize, liveSince);
+        summary.put(StateOfBookingRequest.WAITING, (long) (waitingSize - waitingEndedBefore));
+        summary.put(StateOfBookingRequest.REJECTED, statusCounts[BookingStatus.REJECTED.ordinal()]);
+        return summary;
+    }
+
+    private static long[] insertSorted(long[] source, int size, long value) {
+        long[] target = size < source.length ? source : Arrays.copyOf(source, Math.max(8, source.length * 2));
+        int position = upperBound(source, size, value);
+        System.arraycopy(source, position, target, position + 1, size - position);
+        target[position] = value;
+        return target;
+    }
+
+    private static void removeSorted(long[] values, int size, long value) {
+        int position = lowerBound(values, size, value);
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+    }
+
+    private static int lowerBound(long[] values, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.OwnerBookingFact;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OwnerBookingSummaryIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, OwnerBookingCounters> counters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<OwnerBookingFact>> factsByOwner = bookingRepository.findOwnerBookingFacts().stream()
+                .collect(Collectors.groupingBy(OwnerBookingFact::getOwnerId));
+        Map<Long, OwnerBookingCounters> rebuilt = new HashMap<>();
+        factsByOwner.forEach((ownerId, facts) -> rebuilt.put(ownerId, toCounters(facts)));
+        counters.clear();
+        counters.putAll(rebuilt);
+        log.info("Счетчики бронирований построены для {} владельцев", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        OwnerBookingCounters ownerCounters = counters.computeIfAbsent(event.getOwnerId(),
+                id -> new OwnerBookingCounters());
+        if (event.getPreviousStatus() == null) {
+            ownerCounters.add(toEpochMilli(event.getStart()), toEpochMilli(event.getEnd()), event.getStatus());
+        } else if (event.getPreviousStatus() != event.getStatus()) {
+            ownerCounters.changeStatus(toEpochMilli(event.getEnd()), event.getPreviousStatus(), event.getStatus());
+        }
+    }
+
+    public Map<StateOfBookingRequest, Long> summary(Long ownerId, LocalDateTime now, LocalDateTime liveSince) {
+        return counters.getOrDefault(ownerId, new OwnerBookingCounters())
+                .summary(toEpochMilli(now), liveSince == null ? Long.MIN_VALUE : toEpochMilli(liveSince));
+    }
+
+    private static OwnerBookingCounters toCounters(List<OwnerBookingFact> facts) {
+        long[] starts = new long[facts.size()];
+        long[] ends = new long[facts.size()];
+        for (int i = 0; i < facts.size(); i++) {
+            starts[i] = toEpochMilli(facts.get(i).getStart());
+            ends[i] = toEpochMilli(facts.get(i).getEnd());
+        }
+        OwnerBookingCounters ownerCounters = new OwnerBookingCounters(starts, ends);
+        facts.forEach(fact -> ownerCounters.countStatus(toEpochMilli(fact.getEnd()), fact.getStatus()));
+        return ownerCounters;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
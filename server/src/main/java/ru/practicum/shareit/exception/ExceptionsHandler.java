@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -65,4 +66,18 @@ public class ExceptionsHandler {
         log.info("Request not found error: {}", e.getMessage());
         return new ErrorResponse("Ошибка валидации данных: " + e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflictException(final BookingConflictException e) {
+        log.info("Booking conflict error: {}", e.getMessage());
+        return new ErrorResponse("Конфликт изменения бронирования: " + e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final ObjectOptimisticLockingFailureException e) {
+        log.info("Optimistic locking error: {}", e.getMessage());
+        return new ErrorResponse("Данные были изменены другим запросом, повторите попытку");
+    }
 }
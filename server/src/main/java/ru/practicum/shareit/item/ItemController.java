@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.stream.ItemCatalogueWriter;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @Validated
@@ -18,6 +28,7 @@ import java.util.Collection;
 public class ItemController {
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ItemCatalogueWriter itemCatalogueWriter;
 
     @PostMapping
     public ItemDto createNewItem(@RequestHeader("X-Sharer-User-Id") final Long userId,
@@ -39,21 +50,79 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDto> getUserItems(@RequestHeader("X-Sharer-User-Id") final Long userId,
-                                            @RequestParam(value = "from", required = false, defaultValue = "0")
-                                            final Integer from,
-                                            @RequestParam(value = "size", required = false, defaultValue = "10")
-                                                final Integer size) {
-        return itemService.getUserItems(userId, from, size);
+    public ResponseEntity<List<ItemDto>> getUserItems(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                      @RequestParam(value = "from", required = false, defaultValue = "0")
+                                                      final Integer from,
+                                                      @RequestParam(value = "size", required = false, defaultValue = "10")
+                                                          final Integer size,
+                                                      @RequestParam(value = "cursor", required = false)
+                                                          final String cursor) {
+        List<ItemDto> items = itemService.getUserItems(userId, from, size, cursor);
+        if (items.size() < size) {
+            return ResponseEntity.ok(items);
+        }
+        ItemDto last = items.get(items.size() - 1);
+        LocalDateTime position = last.getNextBooking() == null ? null : last.getNextBooking().getStart();
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(position, last.getId()).encode())
+                .body(items);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemCatalogueWriter::writeAll);
     }
 
     @GetMapping("/search")
     public Collection<ItemDto> searchItem(@RequestParam("text") final String text,
+                                          @RequestParam(value = "start", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          final LocalDateTime start,
+                                          @RequestParam(value = "end", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          final LocalDateTime end,
                                           @RequestParam(value = "from", required = false, defaultValue = "0")
                                           final Integer from,
                                           @RequestParam(value = "size", required = false, defaultValue = "10")
-                                              final Integer size) {
-        return itemService.searchItem(text, from, size);
+                                              final Integer size,
+                                          @RequestParam(value = "engine", required = false) final String engine) {
+        return itemService.searchItem(text, start, end, from, size, engine);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam("prefix") final String prefix,
+                                                @RequestParam(value = "limit", required = false, defaultValue = "10")
+                                                final Integer limit) {
+        return itemService.suggestItems(prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindowDto> getItemAvailability(@PathVariable final Long itemId,
+                                                           @RequestParam("from")
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           final LocalDateTime from,
+                                                           @RequestParam("to")
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           final LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentShortDto>> getItemComments(@PathVariable final Long itemId,
+                                                                 @RequestParam(value = "cursor", required = false)
+                                                                 final String cursor,
+                                                                 @RequestParam(value = "size", required = false,
+                                                                         defaultValue = "20") final Integer size) {
+        List<CommentShortDto> comments = commentService.getItemComments(itemId, cursor, size);
+        if (comments.size() < size) {
+            return ResponseEntity.ok(comments);
+        }
+        CommentShortDto last = comments.get(comments.size() - 1);
+        return ResponseEntity.ok()
+                .header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(comments);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookerStart;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class CommentEligibility {
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final long UNKNOWN = Long.MAX_VALUE;
+    private static final long MAX_PACKED_ID = 0xFFFF_FFFFL;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final BookingRepository bookingRepository;
+    private final LongLongHashMap earliestStarts = new LongLongHashMap(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long modifications;
+
+    public CommentEligibility(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ItemBookerStart> starts = bookingRepository.findEarliestStarts();
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            earliestStarts.clear();
+            starts.stream()
+                    .filter(start -> isPackable(start.getItemId(), start.getBookerId()))
+                    .forEach(start -> earliestStarts.put(pack(start.getItemId(), start.getBookerId()),
+                            toEpochMicro(start.getStart())));
+            log.info("Индекс права на комментарии построен: {} пар вещь-арендатор", earliestStarts.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        boolean created = event.getPreviousStatus() == null && event.getStatus() != BookingStatus.REJECTED;
+        boolean rejected = event.getPreviousStatus() != BookingStatus.REJECTED
+                && event.getStatus() == BookingStatus.REJECTED;
+        if (!created && !rejected || !isPackable(event.getItemId(), event.getBookerId())) {
+            return;
+        }
+        long key = pack(event.getItemId(), event.getBookerId());
+        long start = toEpochMicro(event.getStart());
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            long earliest = earliestStarts.get(key, MISSING);
+            if (created && earliest != UNKNOWN && (earliest == MISSING || start < earliest)) {
+                earliestStarts.put(key, start);
+            } else if (rejected && earliest != MISSING && start <= earliest) {
+                earliestStarts.put(key, UNKNOWN);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean canComment(Long itemId, Long bookerId, LocalDateTime now) {
+        if (!isPackable(itemId, bookerId)) {
+            return bookingRepository.findEarliestStart(itemId, bookerId)
+                    .map(start -> !start.isAfter(now))
+                    .orElse(false);
+        }
+        long key = pack(itemId, bookerId);
+        long earliest;
+        long seen;
+        lock.readLock().lock();
+        try {
+            earliest = earliestStarts.get(key, MISSING);
+            seen = modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+        long nowMicros = toEpochMicro(now);
+        if (earliest != MISSING && earliest <= nowMicros) {
+            return true;
+        }
+        earliest = reload(key, itemId, bookerId, seen);
+        return earliest != MISSING && earliest <= nowMicros;
+    }
+
+    private long reload(long key, Long itemId, Long bookerId, long seen) {
+        long earliest = bookingRepository.findEarliestStart(itemId, bookerId)
+                .map(CommentEligibility::toEpochMicro)
+                .orElse(MISSING);
+        lock.writeLock().lock();
+        try {
+            if (modifications == seen) {
+                if (earliest == MISSING) {
+                    earliestStarts.remove(key);
+                } else {
+                    earliestStarts.put(key, earliest);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return earliest;
+    }
+
+    private static boolean isPackable(Long itemId, Long bookerId) {
+        return itemId > 0 && itemId <= MAX_PACKED_ID && bookerId > 0 && bookerId <= MAX_PACKED_ID;
+    }
+
+    private static long pack(long itemId, long bookerId) {
+        return itemId << 32 | bookerId;
+    }
+
+    private static long toEpochMicro(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / NANOS_PER_MICRO;
+    }
+}
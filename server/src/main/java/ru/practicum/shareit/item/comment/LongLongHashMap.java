@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.comment;
+
+import java.util.Arrays;
+
+class LongLongHashMap {
+    private static final long FREE = 0L;
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    long get(long key, long missing) {
+        int slot = find(key);
+        return keys[slot] == FREE ? missing : values[slot];
+    }
+
+    void put(long key, long value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Ключ 0 зарезервирован под свободную ячейку");
+        }
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            if (size + 1 > keys.length * MAX_LOAD) {
+                resize(keys.length * 2);
+                slot = find(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    void remove(long key) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            return;
+        }
+        keys[slot] = FREE;
+        size--;
+        int next = (slot + 1) & mask;
+        while (keys[next] != FREE) {
+            long movedKey = keys[next];
+            long movedValue = values[next];
+            keys[next] = FREE;
+            int target = find(movedKey);
+            keys[target] = movedKey;
+            values[target] = movedValue;
+            next = (next + 1) & mask;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * MAX_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.comment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class RecentComments {
+    private final CommentRepository commentRepository;
+    private final int limit;
+
+    public RecentComments(CommentRepository commentRepository,
+                          @Value("${shareit.items.comments.embedded-limit:10}") int limit) {
+        this.commentRepository = commentRepository;
+        this.limit = limit;
+    }
+
+    public List<CommentShortDto> forItem(Long itemId) {
+        List<CommentShortDto> comments = new ArrayList<>();
+        commentRepository.findRecentByItemId(itemId, PageRequest.of(0, limit))
+                .forEach(comment -> comments.add(CommentMapper.toCommentShortDto(comment)));
+        Collections.reverse(comments);
+        return comments;
+    }
+
+    public Map<Long, List<CommentShortDto>> forItems(Collection<Long> itemIds) {
+        Map<Long, List<CommentShortDto>> commentsByItem = new HashMap<>();
+        commentRepository.findRecentByItemIds(itemIds, limit).forEach(comment ->
+                commentsByItem.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>())
+                        .add(0, CommentMapper.toCommentShortDto(comment)));
+        return commentsByItem;
+    }
+}
@@ -16,5 +16,6 @@ public class ItemDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentShortDto> comments;
+    private CommentStatsDto commentStats;
     private Long requestId;
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class CommentEvent {
+    private final Long commentId;
+    private final Long itemId;
+    private final Long authorId;
+    private final LocalDateTime created;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ItemEvent {
+    private final Long itemId;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final boolean deleted;
+}
@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.event.CommentEvent;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -32,6 +34,16 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentShortDto toCommentShortDto(CommentView comment) {
+        return CommentShortDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .itemId(comment.getItemId())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static Comment toComment(CommentShortDto commentShortDto, Item item, User user) {
         return Comment.builder()
                 .id(commentShortDto.getId())
@@ -41,4 +53,13 @@ public class CommentMapper {
                 .created(commentShortDto.getCreated())
                 .build();
     }
+
+    public static CommentEvent toCommentEvent(Comment comment) {
+        return CommentEvent.builder()
+                .commentId(comment.getId())
+                .itemId(comment.getItem().getId())
+                .authorId(comment.getAuthor().getId())
+                .created(comment.getCreated())
+                .build();
+    }
 }
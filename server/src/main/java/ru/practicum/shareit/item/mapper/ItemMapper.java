@@ -2,15 +2,13 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.CommentStatsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.event.ItemEvent;
 import ru.practicum.shareit.item.model.Item;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -25,22 +23,31 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .commentStats(toCommentStatsDto(item))
                 .requestId(item.getRequestId())
                 .build();
     }
 
-    public static ItemDto toItemDto(Item item, List<Comment> itemComments) {
-        List<CommentShortDto> commentsShortDto = itemComments.stream().map(CommentMapper::toCommentShortDto).collect(Collectors.toList());
+    public static ItemDto toItemDto(Item item, List<CommentShortDto> commentsShortDto) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(commentsShortDto)
+                .commentStats(toCommentStatsDto(item))
                 .requestId(item.getRequestId())
                 .build();
     }
 
+    public static CommentStatsDto toCommentStatsDto(Item item) {
+        return CommentStatsDto.builder()
+                .count(item.getCommentCount())
+                .authors(item.getCommentAuthors())
+                .lastCommentAt(item.getLastCommentAt())
+                .build();
+    }
+
     public static Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -51,25 +58,23 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDto toItemDto(Item item, List<Comment> itemComments, List<Booking> bookings) {
+    public static ItemDto toItemDto(Item item, List<CommentShortDto> itemComments,
+                                    BookingShortDto lastBooking, BookingShortDto nextBooking) {
         ItemDto itemDto = toItemDto(item, itemComments);
-
-        LocalDateTime now = LocalDateTime.now();
-        for (Booking booking: bookings) {
-            if (booking.getStart().isAfter(now) &&
-                    (booking.getStatus() == BookingStatus.WAITING ||
-                            booking.getStatus() == BookingStatus.APPROVED)) {
-                itemDto.setNextBooking(BookingMapper.toShortBookingDto(booking));
-            }
-            if (booking.getStart().isBefore(now) &&
-                    (booking.getStatus() == BookingStatus.WAITING ||
-                            booking.getStatus() == BookingStatus.APPROVED)) {
-                itemDto.setLastBooking(BookingMapper.toShortBookingDto(booking));
-            }
-        }
+        itemDto.setLastBooking(lastBooking);
+        itemDto.setNextBooking(nextBooking);
         return itemDto;
     }
 
+    public static ItemEvent toItemEvent(Item item) {
+        return ItemEvent.builder()
+                .itemId(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+    }
+
     public static Set<ItemDto> toItemDtos(Set<Item> items) {
         return items.stream().map(ItemMapper::toItemDto).collect(Collectors.toSet());
     }
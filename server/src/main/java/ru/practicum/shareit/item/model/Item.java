@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -35,4 +36,13 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private long commentCount;
+
+    @Column(name = "comment_authors", insertable = false, updatable = false)
+    private long commentAuthors;
+
+    @Column(name = "last_comment_at", insertable = false, updatable = false)
+    private LocalDateTime lastCommentAt;
 }
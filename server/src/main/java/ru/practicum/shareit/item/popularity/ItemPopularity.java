@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemPopularity {
+    public static final ItemPopularity NONE = new ItemPopularity(0, 0, 0, 0);
+
+    private final long approvedBookings;
+    private final long comments;
+    private final double velocity;
+    private final long velocityAt;
+
+    public double velocityAt(long epochSecond, long halfLifeSeconds) {
+        if (velocity == 0) {
+            return 0;
+        }
+        return velocity * Math.pow(0.5, (double) Math.max(epochSecond - velocityAt, 0) / halfLifeSeconds);
+    }
+
+    public ItemPopularity withBooking(long epochSecond, long halfLifeSeconds) {
+        long at = Math.max(epochSecond, velocityAt);
+        return new ItemPopularity(approvedBookings, comments, velocityAt(at, halfLifeSeconds) + 1, at);
+    }
+
+    public ItemPopularity withApprovedBookings(long delta) {
+        return new ItemPopularity(Math.max(approvedBookings + delta, 0), comments, velocity, velocityAt);
+    }
+
+    public ItemPopularity withComment() {
+        return withComments(1);
+    }
+
+    public ItemPopularity withComments(long added) {
+        return new ItemPopularity(approvedBookings, comments + added, velocity, velocityAt);
+    }
+}
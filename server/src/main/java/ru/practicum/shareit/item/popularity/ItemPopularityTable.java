@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.CommentEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+@Component
+@Slf4j
+public class ItemPopularityTable {
+    private static final int REBUILD_HALF_LIVES = 4;
+
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final long halfLifeSeconds;
+    private final Map<Long, ItemPopularity> popularity = new ConcurrentHashMap<>();
+
+    public ItemPopularityTable(BookingRepository bookingRepository, CommentRepository commentRepository,
+                               @Value("${shareit.items.popularity.velocity-half-life:P7D}") Duration halfLife) {
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.halfLifeSeconds = halfLife.toSeconds();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemPopularity> rebuilt = new HashMap<>();
+        bookingRepository.findApprovedBookingCounts().forEach(count -> rebuilt.put(count.getItemId(),
+                ItemPopularity.NONE.withApprovedBookings(count.getBookings())));
+        commentRepository.findCommentCounts().forEach(count -> rebuilt.put(count.getItemId(),
+                rebuilt.getOrDefault(count.getItemId(), ItemPopularity.NONE).withComments(count.getComments())));
+        List<BookingInterval> recent = bookingRepository.findActiveIntervalsStartedAfter(
+                now.minusSeconds(halfLifeSeconds * REBUILD_HALF_LIVES));
+        long nowSecond = toEpochSecond(now);
+        recent.stream()
+                .sorted(Comparator.comparing(BookingInterval::getStart))
+                .forEach(interval -> rebuilt.put(interval.getItemId(),
+                        rebuilt.getOrDefault(interval.getItemId(), ItemPopularity.NONE).withBooking(
+                                Math.min(toEpochSecond(interval.getStart()), nowSecond), halfLifeSeconds)));
+        popularity.clear();
+        popularity.putAll(rebuilt);
+        log.info("Таблица популярности вещей построена для {} вещей", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getPreviousStatus() == null) {
+            long now = toEpochSecond(LocalDateTime.now());
+            update(event.getItemId(), current -> current.withBooking(now, halfLifeSeconds));
+        }
+        boolean wasApproved = event.getPreviousStatus() == BookingStatus.APPROVED;
+        boolean isApproved = event.getStatus() == BookingStatus.APPROVED;
+        if (wasApproved != isApproved) {
+            update(event.getItemId(), current -> current.withApprovedBookings(isApproved ? 1 : -1));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentEvent(CommentEvent event) {
+        update(event.getItemId(), ItemPopularity::withComment);
+    }
+
+    public double score(Long itemId, LocalDateTime now) {
+        ItemPopularity item = popularity.get(itemId);
+        if (item == null) {
+            return 0;
+        }
+        double raw = Math.log1p(item.getApprovedBookings())
+                + Math.log1p(item.getComments()) / 2
+                + Math.log1p(item.velocityAt(toEpochSecond(now), halfLifeSeconds));
+        return raw / (1 + raw);
+    }
+
+    private void update(Long itemId, UnaryOperator<ItemPopularity> change) {
+        popularity.compute(itemId, (id, current) -> change.apply(current == null ? ItemPopularity.NONE : current));
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
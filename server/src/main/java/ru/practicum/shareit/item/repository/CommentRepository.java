@@ -1,11 +1,46 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.CommentView;
+import ru.practicum.shareit.item.model.ItemCommentCount;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemOrderByIdAsc(Item item);
+    @Query("select c.id as id, c.text as text, c.item.id as itemId, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findRecentByItemId(Long itemId, Pageable pageable);
+
+    @Query("select c.id as id, c.text as text, c.item.id as itemId, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findRecentByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query(nativeQuery = true, value = "SELECT ranked.id AS \"id\", ranked.text AS \"text\", " +
+            "ranked.item_id AS \"itemId\", ranked.author_name AS \"authorName\", ranked.created AS \"created\" " +
+            "FROM (SELECT c.id, c.text, c.item_id, u.name AS author_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS recency " +
+            "FROM comments c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.item_id IN (:itemIds)) ranked " +
+            "WHERE ranked.recency <= :limit " +
+            "ORDER BY ranked.item_id, ranked.created DESC, ranked.id DESC")
+    List<CommentView> findRecentByItemIds(Collection<Long> itemIds, int limit);
+
+    @Query("select c from Comment c join fetch c.item i join fetch i.owner join fetch c.author " +
+            "where c.id = :commentId")
+    Optional<Comment> findWithItemAndAuthor(Long commentId);
+
+    @Query("select c.item.id as itemId, count(c) as comments from Comment c group by c.item.id")
+    List<ItemCommentCount> findCommentCounts();
 }
@@ -2,22 +2,63 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.model.SearchableItem;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
     @Query(" select i from Item i " +
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%')))")
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> findByOwner(User user, Pageable pageable);
+    @Query(" select i from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item = i " +
+            "and b.status in ('WAITING', 'APPROVED') " +
+            "and b.start < :end " +
+            "and b.end > :start)")
+    List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description from Item i where i.available = true")
+    List<SearchableItem> findSearchableItems();
 
     List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.commentCount = i.commentCount + 1, " +
+            "i.lastCommentAt = case when i.lastCommentAt is null or i.lastCommentAt < :created " +
+            "then :created else i.lastCommentAt end " +
+            "where i.id = :itemId")
+    int recordComment(Long itemId, LocalDateTime created);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Item i set i.commentAuthors = i.commentAuthors + 1 " +
+            "where i.id = :itemId " +
+            "and not exists (select c.id from Comment c " +
+            "where c.item.id = :itemId and c.author.id = :authorId and c.id <> :commentId)")
+    int recordCommentAuthor(Long itemId, Long authorId, Long commentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> itemIds);
+
 }
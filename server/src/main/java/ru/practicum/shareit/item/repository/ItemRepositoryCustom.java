@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    List<Item> findByOwnerOrderByNextBooking(User owner, LocalDateTime now, KeysetCursor after, Pageable pageable);
+
+    List<Item> searchFullText(String text, Pageable pageable);
+
+    List<Item> searchSimilar(String text, double threshold, Pageable pageable);
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final String OWNER_ITEMS_BY_NEXT_BOOKING = "SELECT i.* FROM items i " +
+            "LEFT JOIN (SELECT b.item_id, MIN(b.start_date) AS next_start FROM bookings b " +
+            "JOIN items owned ON owned.id = b.item_id " +
+            "WHERE owned.owner_id = :ownerId " +
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start_date > :now " +
+            "GROUP BY b.item_id) nb ON nb.item_id = i.id " +
+            "WHERE i.owner_id = :ownerId";
+    private static final String AFTER_ITEM_WITH_NEXT_BOOKING = " AND (nb.next_start < :afterPosition " +
+            "OR (nb.next_start = :afterPosition AND i.id > :afterId) " +
+            "OR nb.next_start IS NULL)";
+    private static final String AFTER_ITEM_WITHOUT_NEXT_BOOKING = " AND nb.next_start IS NULL AND i.id > :afterId";
+    private static final String ORDER_BY_NEXT_BOOKING = " ORDER BY nb.next_start DESC NULLS LAST, i.id";
+    private static final String FULL_TEXT_SEARCH = "SELECT i.* FROM items i, " +
+            "plainto_tsquery('russian', :text) query " +
+            "WHERE i.available = true " +
+            "AND i.search_vector @@ query " +
+            "ORDER BY ts_rank(i.search_vector, query) DESC, i.id";
+    private static final String SET_SIMILARITY_THRESHOLD =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+    private static final String SIMILARITY_SEARCH = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (lower(:text) <% lower(i.name) OR lower(:text) <% lower(i.description)) " +
+            "ORDER BY GREATEST(word_similarity(lower(:text), lower(i.name)), " +
+            "word_similarity(lower(:text), lower(i.description))) DESC, i.id";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> findByOwnerOrderByNextBooking(User owner, LocalDateTime now, KeysetCursor after,
+                                                    Pageable pageable) {
+        StringBuilder sql = new StringBuilder(OWNER_ITEMS_BY_NEXT_BOOKING);
+        if (after != null) {
+            sql.append(after.getPosition() == null ? AFTER_ITEM_WITHOUT_NEXT_BOOKING : AFTER_ITEM_WITH_NEXT_BOOKING);
+        }
+        sql.append(ORDER_BY_NEXT_BOOKING);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Item.class)
+                .setParameter("ownerId", owner.getId())
+                .setParameter("now", now);
+        if (after != null) {
+            query.setParameter("afterId", after.getId());
+            if (after.getPosition() != null) {
+                query.setParameter("afterPosition", after.getPosition());
+            }
+        }
+        return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchFullText(String text, Pageable pageable) {
+        return entityManager.createNativeQuery(FULL_TEXT_SEARCH, Item.class)
+                .setParameter("text", text)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchSimilar(String text, double threshold, Pageable pageable) {
+        entityManager.createNativeQuery(SET_SIMILARITY_THRESHOLD)
+                .setParameter("threshold", String.valueOf(threshold))
+                .getSingleResult();
+        return entityManager.createNativeQuery(SIMILARITY_SEARCH, Item.class)
+                .setParameter("text", text)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
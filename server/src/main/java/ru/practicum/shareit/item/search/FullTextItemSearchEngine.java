@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final SqlItemSearchEngine fallback;
+    private final boolean supported;
+
+    public FullTextItemSearchEngine(ItemRepository itemRepository, SqlItemSearchEngine fallback,
+                                    JdbcTemplate jdbcTemplate) {
+        this.itemRepository = itemRepository;
+        this.fallback = fallback;
+        String database = ItemSearchDatabase.productName(jdbcTemplate);
+        this.supported = ItemSearchDatabase.isPostgreSql(database);
+        if (!supported) {
+            log.info("Полнотекстовый поиск не поддерживается базой {}, используется поиск по подстроке", database);
+        }
+    }
+
+    @Override
+    public SearchEngineType type() {
+        return SearchEngineType.FULLTEXT;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (!supported) {
+            return fallback.search(text, pageable);
+        }
+        return itemRepository.searchFullText(text, pageable);
+    }
+}
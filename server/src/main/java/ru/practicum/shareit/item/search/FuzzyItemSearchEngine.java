@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class FuzzyItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final double threshold;
+    private final boolean inDatabase;
+    private final TrigramIndex index = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FuzzyItemSearchEngine(ItemRepository itemRepository, JdbcTemplate jdbcTemplate,
+                                 @Value("${shareit.items.search.fuzzy.threshold:0.3}") double threshold) {
+        this.itemRepository = itemRepository;
+        this.threshold = threshold;
+        this.inDatabase = ItemSearchDatabase.isPostgreSql(ItemSearchDatabase.productName(jdbcTemplate));
+    }
+
+    @Override
+    public SearchEngineType type() {
+        return SearchEngineType.FUZZY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (inDatabase) {
+            return;
+        }
+        List<SearchableItem> items = itemRepository.findSearchableItems();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            items.forEach(item -> index.put(item.getId(), item.getName(), item.getDescription()));
+            log.info("Триграммный индекс вещей построен: {} вещей, {} слов", index.size(), index.wordCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemEvent(ItemEvent event) {
+        if (inDatabase) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || !Boolean.TRUE.equals(event.getAvailable())) {
+                index.remove(event.getItemId());
+            } else {
+                index.put(event.getItemId(), event.getName(), event.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> search(String text, Pageable pageable) {
+        if (inDatabase) {
+            return itemRepository.searchSimilar(text, threshold, pageable);
+        }
+        List<Long> itemIds;
+        lock.readLock().lock();
+        try {
+            itemIds = index.searchBySimilarity(text, threshold, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IndexedItems.load(itemRepository, itemIds);
+    }
+}
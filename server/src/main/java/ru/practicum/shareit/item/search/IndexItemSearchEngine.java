@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongToDoubleFunction;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IndexItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public SearchEngineType type() {
+        return SearchEngineType.INDEX;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SearchableItem> items = itemRepository.findSearchableItems();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            items.forEach(item -> index.put(item.getId(), item.getName(), item.getDescription()));
+            log.info("Поисковый индекс вещей построен: {} вещей, {} терминов", index.size(), index.termCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemEvent(ItemEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || !Boolean.TRUE.equals(event.getAvailable())) {
+                index.remove(event.getItemId());
+            } else {
+                index.put(event.getItemId(), event.getName(), event.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> itemIds;
+        lock.readLock().lock();
+        try {
+            itemIds = index.searchOrderedByName(text, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IndexedItems.load(itemRepository, itemIds);
+    }
+
+    List<Item> searchRanked(String text, Pageable pageable, LongToDoubleFunction boost) {
+        List<Long> itemIds;
+        lock.readLock().lock();
+        try {
+            itemIds = index.searchRanked(text, boost, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IndexedItems.load(itemRepository, itemIds);
+    }
+}
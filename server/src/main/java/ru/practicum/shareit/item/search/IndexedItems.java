@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class IndexedItems {
+
+    private IndexedItems() {
+    }
+
+    static List<Item> load(ItemRepository itemRepository, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.function.LongToDoubleFunction;
+
+final class InvertedIndex {
+    private static final long[] NO_ITEMS = new long[0];
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.5;
+    private static final double DESCRIPTION_MATCH = 0.6;
+
+    private final NavigableMap<String, long[]> postings = new TreeMap<>();
+    private final Map<Long, String[]> termsByItem = new HashMap<>();
+    private final Map<Long, String> sortKeys = new HashMap<>();
+    private final Map<Long, String[]> nameTermsByItem = new HashMap<>();
+
+    void put(long itemId, String name, String description) {
+        remove(itemId);
+        String[] terms = ItemTextTokenizer.distinctTokens(name, description).toArray(new String[0]);
+        for (String term : terms) {
+            postings.merge(term, new long[]{itemId}, (existing, added) -> insert(existing, itemId));
+        }
+        termsByItem.put(itemId, terms);
+        sortKeys.put(itemId, ItemTextTokenizer.fold(name));
+        nameTermsByItem.put(itemId, ItemTextTokenizer.distinctTokens(name).toArray(new String[0]));
+    }
+
+    void remove(long itemId) {
+        String[] terms = termsByItem.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            postings.computeIfPresent(term, (key, items) -> {
+                long[] updated = delete(items, itemId);
+                return updated.length == 0 ? null : updated;
+            });
+        }
+        sortKeys.remove(itemId);
+        nameTermsByItem.remove(itemId);
+    }
+
+    void clear() {
+        postings.clear();
+        termsByItem.clear();
+        sortKeys.clear();
+        nameTermsByItem.clear();
+    }
+
+    int size() {
+        return termsByItem.size();
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    long[] match(String text) {
+        List<String> tokens = ItemTextTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return NO_ITEMS;
+        }
+        long[] matched = null;
+        for (String token : tokens) {
+            long[] withPrefix = itemsWithPrefix(token);
+            matched = matched == null ? withPrefix : intersect(matched, withPrefix);
+            if (matched.length == 0) {
+                break;
+            }
+        }
+        return matched;
+    }
+
+    List<Long> searchOrderedByName(String text, long offset, int limit) {
+        long[] matched = match(text);
+        long wanted = Math.min(matched.length, offset + limit);
+        if (wanted <= offset) {
+            return List.of();
+        }
+        Comparator<Long> byName = Comparator.<Long, String>comparing(sortKeys::get).thenComparing(Comparator.naturalOrder());
+        PriorityQueue<Long> firstByName = new PriorityQueue<>((int) wanted, byName.reversed());
+        for (long itemId : matched) {
+            firstByName.add(itemId);
+            if (firstByName.size() > wanted) {
+                firstByName.poll();
+            }
+        }
+        List<Long> ordered = new ArrayList<>(firstByName);
+        ordered.sort(byName);
+        return ordered.subList((int) offset, ordered.size());
+    }
+
+    List<Long> searchRanked(String text, LongToDoubleFunction boost, long offset, int limit) {
+        long[] matched = match(text);
+        long wanted = Math.min(matched.length, offset + limit);
+        if (wanted <= offset) {
+            return List.of();
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        for (long itemId : matched) {
+            scores.put(itemId, boost.applyAsDouble(itemId));
+        }
+        List<String> tokens = ItemTextTokenizer.tokenize(text);
+        for (String token : tokens) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            postings.subMap(token, true, token + Character.MAX_VALUE, false).forEach((term, items) -> {
+                double termMatch = term.length() == token.length() ? EXACT_MATCH : PREFIX_MATCH;
+                for (long itemId : items) {
+                    if (scores.containsKey(itemId)) {
+                        double score = isNameTerm(itemId, term) ? termMatch : termMatch * DESCRIPTION_MATCH;
+                        tokenScores.merge(itemId, score, Math::max);
+                    }
+                }
+            });
+            tokenScores.forEach((itemId, score) -> scores.merge(itemId, score / tokens.size(), Double::sum));
+        }
+        Comparator<Long> byScore = Comparator.<Long, Double>comparing(scores::get).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        PriorityQueue<Long> best = new PriorityQueue<>((int) wanted, byScore.reversed());
+        for (long itemId : matched) {
+            best.add(itemId);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+        List<Long> ordered = new ArrayList<>(best);
+        ordered.sort(byScore);
+        return ordered.subList((int) offset, ordered.size());
+    }
+
+    private boolean isNameTerm(long itemId, String term) {
+        for (String nameTerm : nameTermsByItem.get(itemId)) {
+            if (nameTerm.equals(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long[] itemsWithPrefix(String prefix) {
+        Collection<long[]> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+        long[] merged = new long[lists.stream().mapToInt(items -> items.length).sum()];
+        int length = 0;
+        for (long[] items : lists) {
+            System.arraycopy(items, 0, merged, length, items.length);
+            length += items.length;
+        }
+        Arrays.sort(merged);
+        int distinct = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[distinct++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, distinct);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static long[] insert(long[] items, long itemId) {
+        int position = Arrays.binarySearch(items, itemId);
+        if (position >= 0) {
+            return items;
+        }
+        position = -position - 1;
+        long[] result = Arrays.copyOf(items, items.length + 1);
+        System.arraycopy(items, position, result, position + 1, items.length - position);
+        result[position] = itemId;
+        return result;
+    }
+
+    static long[] delete(long[] items, long itemId) {
+        int position = Arrays.binarySearch(items, itemId);
+        if (position < 0) {
+            return items;
+        }
+        long[] result = new long[items.length - 1];
+        System.arraycopy(items, 0, result, 0, position);
+        System.arraycopy(items, position + 1, result, position, items.length - position - 1);
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+final class ItemSearchDatabase {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private ItemSearchDatabase() {
+    }
+
+    static String productName(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+    }
+
+    static boolean isPostgreSql(String productName) {
+        return POSTGRESQL.equals(productName);
+    }
+}
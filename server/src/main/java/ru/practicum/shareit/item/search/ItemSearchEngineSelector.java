@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class ItemSearchEngineSelector {
+    private final Map<SearchEngineType, ItemSearchEngine> engines = new EnumMap<>(SearchEngineType.class);
+    private final SearchEngineType defaultEngine;
+
+    public ItemSearchEngineSelector(List<ItemSearchEngine> engines,
+                                    @Value("${shareit.items.search.engine:SQL}") SearchEngineType defaultEngine) {
+        engines.forEach(engine -> this.engines.put(engine.type(), engine));
+        this.defaultEngine = defaultEngine;
+    }
+
+    public ItemSearchEngine select(String requested) {
+        SearchEngineType type = requested == null ? defaultEngine : parse(requested);
+        ItemSearchEngine engine = engines.get(type);
+        if (engine == null) {
+            throw new BadRequestException("Поисковый движок недоступен: " + type);
+        }
+        return engine;
+    }
+
+    private static SearchEngineType parse(String requested) {
+        try {
+            return SearchEngineType.valueOf(requested.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Неизвестный поисковый движок: " + requested);
+        }
+    }
+}
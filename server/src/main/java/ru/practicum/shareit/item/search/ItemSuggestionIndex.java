@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingCount;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSuggestionIndex {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final SuggestionTrie trie;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSuggestionIndex(ItemRepository itemRepository, BookingRepository bookingRepository,
+                               @Value("${shareit.items.suggest.top-k:10}") int topK) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.trie = new SuggestionTrie(topK);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ItemBookingCount> counts = bookingRepository.findApprovedBookingCounts();
+        List<SearchableItem> items = itemRepository.findSearchableItems();
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            counts.forEach(count -> trie.setPopularity(count.getItemId(), count.getBookings()));
+            items.forEach(item -> trie.put(item.getId(), item.getName()));
+            log.info("Индекс подсказок построен: {} вещей", trie.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemEvent(ItemEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || !Boolean.TRUE.equals(event.getAvailable())) {
+                trie.remove(event.getItemId());
+            } else {
+                trie.put(event.getItemId(), event.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        boolean wasApproved = event.getPreviousStatus() == BookingStatus.APPROVED;
+        boolean isApproved = event.getStatus() == BookingStatus.APPROVED;
+        if (wasApproved == isApproved) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long bookings = trie.popularityOf(event.getItemId()) + (isApproved ? 1 : -1);
+            trie.setPopularity(event.getItemId(), Math.max(bookings, 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] itemIds = trie.suggest(prefix, limit);
+            List<ItemSuggestionDto> suggestions = new ArrayList<>(itemIds.length);
+            for (long itemId : itemIds) {
+                suggestions.add(new ItemSuggestionDto(itemId, trie.nameOf(itemId)));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
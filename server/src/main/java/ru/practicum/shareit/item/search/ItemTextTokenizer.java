@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class ItemTextTokenizer {
+
+    private ItemTextTokenizer() {
+    }
+
+    static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = fold(text);
+        int tokenStart = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!wordChar && tokenStart >= 0) {
+                tokens.add(folded.substring(tokenStart, i));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> distinctTokens(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class PopularItemSearchEngine implements ItemSearchEngine {
+    private final IndexItemSearchEngine indexEngine;
+    private final ItemPopularityTable popularityTable;
+    private final double popularityWeight;
+
+    public PopularItemSearchEngine(IndexItemSearchEngine indexEngine, ItemPopularityTable popularityTable,
+                                   @Value("${shareit.items.search.popularity-weight:0.5}") double popularityWeight) {
+        this.indexEngine = indexEngine;
+        this.popularityTable = popularityTable;
+        this.popularityWeight = popularityWeight;
+    }
+
+    @Override
+    public SearchEngineType type() {
+        return SearchEngineType.POPULAR;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        return indexEngine.searchRanked(text, pageable,
+                itemId -> popularityWeight * popularityTable.score(itemId, now));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.search;
+
+public enum SearchEngineType {
+    SQL,
+    INDEX,
+    FULLTEXT,
+    FUZZY,
+    POPULAR
+}
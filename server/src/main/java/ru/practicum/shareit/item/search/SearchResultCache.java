@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentEvent;
+import ru.practicum.shareit.item.event.ItemEvent;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class SearchResultCache {
+    private static final Set<SearchEngineType> LEXICAL_ENGINES =
+            EnumSet.of(SearchEngineType.SQL, SearchEngineType.INDEX, SearchEngineType.POPULAR);
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<SearchKey, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<SearchKey>> keysByToken = new HashMap<>();
+    private final Map<Long, Set<SearchKey>> keysByItem = new HashMap<>();
+    private final Set<SearchKey> alwaysInvalidated = new HashSet<>();
+    private final Set<SearchKey> popularityRanked = new HashSet<>();
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    @Autowired
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${shareit.items.search.cache.max-size:10000}") int maxSize,
+                             @Value("${shareit.items.search.cache.ttl:PT1M}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, System::nanoTime);
+    }
+
+    SearchResultCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("shareit.items.search.cache.requests").tag("result", "hit")
+                .description("Количество поисковых запросов, обслуженных из кэша")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shareit.items.search.cache.requests").tag("result", "miss")
+                .description("Количество поисковых запросов, выполненных поисковым движком")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("shareit.items.search.cache.evictions").tag("cause", "size")
+                .description("Количество результатов поиска, вытесненных из кэша")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("shareit.items.search.cache.evictions").tag("cause", "expired")
+                .description("Количество результатов поиска, удаленных из кэша по истечении срока")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("shareit.items.search.cache.invalidations")
+                .description("Количество результатов поиска, сброшенных после изменения вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.search.cache.size", this, SearchResultCache::size)
+                .description("Количество результатов поиска в кэше")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.search.cache.hit-ratio", this, SearchResultCache::hitRatio)
+                .description("Доля поисковых запросов, обслуженных из кэша")
+                .register(meterRegistry);
+    }
+
+    public static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public List<ItemDto> get(SearchEngineType engine, String text, int from, int size,
+                             Supplier<List<ItemDto>> search) {
+        SearchKey key = new SearchKey(engine, text, from, size);
+        long loadedGeneration;
+        synchronized (this) {
+            CachedResult cached = results.get(key);
+            if (cached != null && nanoClock.getAsLong() - cached.getCreatedAt() < ttlNanos) {
+                hits.increment();
+                return cached.getItems();
+            }
+            if (cached != null) {
+                remove(key);
+                expiredEvictions.increment();
+            }
+            misses.increment();
+            loadedGeneration = generation;
+        }
+        List<ItemDto> items = List.copyOf(search.get());
+        synchronized (this) {
+            if (generation == loadedGeneration) {
+                put(key, items);
+            }
+        }
+        return items;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemEvent(ItemEvent event) {
+        generation++;
+        Set<SearchKey> stale = new HashSet<>(alwaysInvalidated);
+        stale.addAll(keysByItem.getOrDefault(event.getItemId(), Set.of()));
+        if (!event.isDeleted()) {
+            String itemText = ItemTextTokenizer.fold(Objects.toString(event.getName(), "") + " "
+                    + Objects.toString(event.getDescription(), ""));
+            Set<String> containedTokens = new HashSet<>();
+            keysByToken.keySet().stream().filter(itemText::contains).forEach(containedTokens::add);
+            for (String token : containedTokens) {
+                for (SearchKey key : keysByToken.get(token)) {
+                    if (containedTokens.containsAll(key.getTokens())) {
+                        stale.add(key);
+                    }
+                }
+            }
+        }
+        stale.forEach(this::remove);
+        invalidations.increment(stale.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCommentEvent(CommentEvent event) {
+        generation++;
+        Set<SearchKey> stale = new HashSet<>(popularityRanked);
+        stale.addAll(keysByItem.getOrDefault(event.getItemId(), Set.of()));
+        stale.forEach(this::remove);
+        invalidations.increment(stale.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingEvent(BookingEvent event) {
+        generation++;
+        Set<SearchKey> stale = new HashSet<>(popularityRanked);
+        stale.forEach(this::remove);
+        invalidations.increment(stale.size());
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    private double hitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+
+    private void put(SearchKey key, List<ItemDto> items) {
+        remove(key);
+        results.put(key, new CachedResult(items, nanoClock.getAsLong()));
+        List<String> tokens = key.getTokens();
+        if (!LEXICAL_ENGINES.contains(key.getEngine()) || tokens.isEmpty()) {
+            alwaysInvalidated.add(key);
+        } else {
+            tokens.forEach(token -> keysByToken.computeIfAbsent(token, t -> new HashSet<>()).add(key));
+        }
+        if (key.getEngine() == SearchEngineType.POPULAR) {
+            popularityRanked.add(key);
+        }
+        items.forEach(item -> keysByItem.computeIfAbsent(item.getId(), id -> new HashSet<>()).add(key));
+        while (results.size() > maxSize) {
+            remove(results.keySet().iterator().next());
+            sizeEvictions.increment();
+        }
+    }
+
+    private void remove(SearchKey key) {
+        CachedResult removed = results.remove(key);
+        if (removed == null) {
+            return;
+        }
+        alwaysInvalidated.remove(key);
+        popularityRanked.remove(key);
+        key.getTokens().forEach(token -> unlink(keysByToken, token, key));
+        removed.getItems().forEach(item -> unlink(keysByItem, item.getId(), key));
+    }
+
+    private static <K> void unlink(Map<K, Set<SearchKey>> index, K indexKey, SearchKey key) {
+        index.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    private static class SearchKey {
+        private final SearchEngineType engine;
+        private final String text;
+        private final int from;
+        private final int size;
+        @EqualsAndHashCode.Exclude
+        private final List<String> tokens;
+
+        private SearchKey(SearchEngineType engine, String text, int from, int size) {
+            this.engine = engine;
+            this.text = text;
+            this.from = from;
+            this.size = size;
+            this.tokens = ItemTextTokenizer.tokenize(text);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class CachedResult {
+        private final List<ItemDto> items;
+        private final long createdAt;
+    }
+}
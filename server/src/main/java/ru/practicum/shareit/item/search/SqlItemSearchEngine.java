@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class SqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public SearchEngineType type() {
+        return SearchEngineType.SQL;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.search(text, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by("name").ascending()));
+    }
+}
@@ -0,0 +1,263 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+final class SuggestionTrie {
+    private static final char[] NO_LABEL = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_ITEMS = new long[0];
+
+    private final int topK;
+    private final Node root = new Node(NO_LABEL);
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, Long> popularity = new HashMap<>();
+    private final Comparator<Long> byPopularity = Comparator.<Long, Long>comparing(this::popularityOf).reversed()
+            .thenComparing(Comparator.naturalOrder());
+    private int nodeCount = 1;
+
+    SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    void put(long itemId, String name) {
+        remove(itemId);
+        names.put(itemId, name);
+        List<Node> path = insertPath(keyOf(name));
+        Node terminal = path.get(path.size() - 1);
+        terminal.itemIds = InvertedIndex.insert(terminal.itemIds, itemId);
+        refreshTops(path);
+    }
+
+    void remove(long itemId) {
+        String name = names.remove(itemId);
+        if (name == null) {
+            return;
+        }
+        List<Node> path = findPath(keyOf(name));
+        Node terminal = path.get(path.size() - 1);
+        terminal.itemIds = InvertedIndex.delete(terminal.itemIds, itemId);
+        refreshTops(path);
+    }
+
+    void setPopularity(long itemId, long value) {
+        if (value == 0) {
+            popularity.remove(itemId);
+        } else {
+            popularity.put(itemId, value);
+        }
+        String name = names.get(itemId);
+        if (name != null) {
+            refreshTops(findPath(keyOf(name)));
+        }
+    }
+
+    void clear() {
+        root.children = NO_CHILDREN;
+        root.itemIds = NO_ITEMS;
+        root.top = NO_ITEMS;
+        names.clear();
+        popularity.clear();
+        nodeCount = 1;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    String nameOf(long itemId) {
+        return names.get(itemId);
+    }
+
+    long popularityOf(long itemId) {
+        return popularity.getOrDefault(itemId, 0L);
+    }
+
+    long[] suggest(String prefix, int limit) {
+        String key = keyOf(prefix);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.child(key.charAt(matched));
+            if (child == null) {
+                return NO_ITEMS;
+            }
+            int common = commonPrefix(child.label, key, matched);
+            matched += common;
+            if (common < child.label.length && matched < key.length()) {
+                return NO_ITEMS;
+            }
+            node = child;
+        }
+        return Arrays.copyOf(node.top, Math.min(limit, node.top.length));
+    }
+
+    private static String keyOf(String text) {
+        return ItemTextTokenizer.fold(text.strip());
+    }
+
+    private List<Node> insertPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.child(key.charAt(matched));
+            if (child == null) {
+                child = new Node(key.substring(matched).toCharArray());
+                node.addChild(child);
+                nodeCount++;
+                path.add(child);
+                return path;
+            }
+            int common = commonPrefix(child.label, key, matched);
+            if (common < child.label.length) {
+                child = split(node, child, common);
+            }
+            matched += common;
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.child(key.charAt(matched));
+            if (child == null || commonPrefix(child.label, key, matched) < child.label.length) {
+                break;
+            }
+            matched += child.label.length;
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(Arrays.copyOf(child.label, at));
+        parent.replaceChild(middle);
+        child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+        middle.addChild(child);
+        middle.top = child.top;
+        nodeCount++;
+        return middle;
+    }
+
+    private void refreshTops(List<Node> path) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            List<Long> candidates = new ArrayList<>();
+            for (long itemId : node.itemIds) {
+                candidates.add(itemId);
+            }
+            for (Node child : node.children) {
+                for (long itemId : child.top) {
+                    candidates.add(itemId);
+                }
+            }
+            candidates.sort(byPopularity);
+            int size = Math.min(topK, candidates.size());
+            node.top = size == 0 ? NO_ITEMS : new long[size];
+            for (int i = 0; i < size; i++) {
+                node.top[i] = candidates.get(i);
+            }
+            if (depth == 0 || node.itemIds.length > 0 || node.children.length > 1) {
+                continue;
+            }
+            if (node.children.length == 0) {
+                path.get(depth - 1).removeChild(node.label[0]);
+            } else {
+                node.absorbOnlyChild();
+            }
+            nodeCount--;
+        }
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int common = 0;
+        while (common < label.length && offset + common < key.length()
+                && label[common] == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private long[] itemIds = NO_ITEMS;
+        private long[] top = NO_ITEMS;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int position = position(first);
+            return position < 0 ? null : children[position];
+        }
+
+        private void addChild(Node child) {
+            int position = -position(child.label[0]) - 1;
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newChildren[position] = child;
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            children = newChildren;
+        }
+
+        private void replaceChild(Node child) {
+            children[position(child.label[0])] = child;
+        }
+
+        private void removeChild(char first) {
+            int position = position(first);
+            if (position < 0) {
+                return;
+            }
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            children = newChildren;
+        }
+
+        private void absorbOnlyChild() {
+            Node only = children[0];
+            char[] merged = Arrays.copyOf(label, label.length + only.label.length);
+            System.arraycopy(only.label, 0, merged, label.length, only.label.length);
+            label = merged;
+            children = only.children;
+            itemIds = only.itemIds;
+            top = only.top;
+        }
+
+        private int position(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].label[0];
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+final class TrigramIndex {
+    private final Map<String, long[]> itemsByWord = new HashMap<>();
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private final Map<String, Integer> trigramCounts = new HashMap<>();
+    private final Map<Long, String[]> wordsByItem = new HashMap<>();
+
+    void put(long itemId, String name, String description) {
+        remove(itemId);
+        String[] words = ItemTextTokenizer.distinctTokens(name, description).toArray(new String[0]);
+        for (String word : words) {
+            long[] items = itemsByWord.get(word);
+            if (items == null) {
+                addWord(word);
+                itemsByWord.put(word, new long[]{itemId});
+            } else {
+                itemsByWord.put(word, InvertedIndex.insert(items, itemId));
+            }
+        }
+        wordsByItem.put(itemId, words);
+    }
+
+    void remove(long itemId) {
+        String[] words = wordsByItem.remove(itemId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            long[] items = InvertedIndex.delete(itemsByWord.get(word), itemId);
+            if (items.length == 0) {
+                itemsByWord.remove(word);
+                removeWord(word);
+            } else {
+                itemsByWord.put(word, items);
+            }
+        }
+    }
+
+    void clear() {
+        itemsByWord.clear();
+        wordsByTrigram.clear();
+        trigramCounts.clear();
+        wordsByItem.clear();
+    }
+
+    int size() {
+        return wordsByItem.size();
+    }
+
+    int wordCount() {
+        return itemsByWord.size();
+    }
+
+    List<Long> searchBySimilarity(String text, double threshold, long offset, int limit) {
+        Map<Long, Double> scores = null;
+        for (String token : new LinkedHashSet<>(ItemTextTokenizer.tokenize(text))) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            similarWords(token, threshold).forEach((word, similarity) -> {
+                for (long itemId : itemsByWord.get(word)) {
+                    tokenScores.merge(itemId, similarity, Math::max);
+                }
+            });
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+        long wanted = Math.min(scores.size(), offset + limit);
+        if (wanted <= offset) {
+            return List.of();
+        }
+        Map<Long, Double> matched = scores;
+        Comparator<Long> bySimilarity = Comparator.<Long, Double>comparing(matched::get).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        PriorityQueue<Long> mostSimilar = new PriorityQueue<>((int) wanted, bySimilarity.reversed());
+        for (Long itemId : matched.keySet()) {
+            mostSimilar.add(itemId);
+            if (mostSimilar.size() > wanted) {
+                mostSimilar.poll();
+            }
+        }
+        List<Long> ordered = new ArrayList<>(mostSimilar);
+        ordered.sort(bySimilarity);
+        return ordered.subList((int) offset, ordered.size());
+    }
+
+    static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private Map<String, Double> similarWords(String token, double threshold) {
+        Set<String> trigrams = trigrams(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            Set<String> words = wordsByTrigram.get(trigram);
+            if (words != null) {
+                words.forEach(word -> shared.merge(word, 1, Integer::sum));
+            }
+        }
+        Map<String, Double> similar = new HashMap<>();
+        shared.forEach((word, count) -> {
+            double similarity = (double) count / (trigrams.size() + trigramCounts.get(word) - count);
+            if (similarity >= threshold) {
+                similar.put(word, similarity);
+            }
+        });
+        return similar;
+    }
+
+    private void addWord(String word) {
+        Set<String> trigrams = trigrams(word);
+        for (String trigram : trigrams) {
+            wordsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(word);
+        }
+        trigramCounts.put(word, trigrams.size());
+    }
+
+    private void removeWord(String word) {
+        for (String trigram : trigrams(word)) {
+            wordsByTrigram.computeIfPresent(trigram, (key, words) -> {
+                words.remove(word);
+                return words.isEmpty() ? null : words;
+            });
+        }
+        trigramCounts.remove(word);
+    }
+}
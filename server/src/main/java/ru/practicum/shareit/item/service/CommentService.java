@@ -3,10 +3,14 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 
+import java.util.List;
+
 public interface CommentService {
 
     CommentDto getCommentById(Long commentId);
 
     CommentDto addNewComment(CommentShortDto commentShortDto, Long itemId, Long userId);
 
+    List<CommentShortDto> getItemComments(Long itemId, String cursor, Integer size);
+
 }
@@ -2,25 +2,29 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.CommentNotFoundException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.comment.CommentEligibility;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -28,9 +32,10 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
-    private final BookingRepository bookingRepository;
+    private final CommentEligibility commentEligibility;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CommentDto getCommentById(Long commentId) {
@@ -42,19 +47,51 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public CommentDto addNewComment(CommentShortDto commentDto, Long itemId, Long userId) {
         LocalDateTime now = LocalDateTime.now();
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
-                new ItemNotFoundException(String.format("Вещь c id=%d не найдена", itemId)));
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
-        Comment comment = CommentMapper.toComment(commentDto, item, user);
-        if (!bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(comment.getItem(),
-                comment.getAuthor(), now)) {
-            throw new BadRequestException("Нельзя оставить комменатрий к вещи, если она не была взята в аренду " +
-                            "или аренда еще не началась");
+        if (!commentEligibility.canComment(itemId, userId, now)) {
+            throw explainIneligibleComment(itemId, userId);
         }
+        if (itemRepository.recordComment(itemId, now) == 0) {
+            throw new ItemNotFoundException(String.format("Вещь c id=%d не найдена", itemId));
+        }
+        Comment comment = CommentMapper.toComment(commentDto, itemRepository.getReferenceById(itemId),
+                userRepository.getReferenceById(userId));
         comment.setCreated(now);
-        log.info("Пользователь id={} добавил комментарий id={} к вещи id={}",
-                comment.getAuthor().getId(), comment.getId(), comment.getItem().getId());
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        Long commentId = commentRepository.save(comment).getId();
+        itemRepository.recordCommentAuthor(itemId, userId, commentId);
+        Comment saved = commentRepository.findWithItemAndAuthor(commentId).orElseThrow(() ->
+                new CommentNotFoundException(String.format("Комментарий с id=%d не найден", commentId)));
+        eventPublisher.publishEvent(CommentMapper.toCommentEvent(saved));
+        log.info("Пользователь id={} добавил комментарий id={} к вещи id={}", userId, commentId, itemId);
+        return CommentMapper.toCommentDto(saved);
+    }
+
+    @Override
+    public List<CommentShortDto> getItemComments(Long itemId, String cursor, Integer size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(String.format("Вещь c id=%d не найдена", itemId));
+        }
+        PageRequest page = PageRequest.of(0, size);
+        List<CommentView> comments;
+        if (cursor == null) {
+            comments = commentRepository.findRecentByItemId(itemId, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (after.getPosition() == null) {
+                throw new BadRequestException("Некорректный курсор: " + cursor);
+            }
+            comments = commentRepository.findRecentByItemIdBefore(itemId, after.getPosition(), after.getId(), page);
+        }
+        return comments.stream().map(CommentMapper::toCommentShortDto).collect(Collectors.toList());
+    }
+
+    private RuntimeException explainIneligibleComment(Long itemId, Long userId) {
+        if (!itemRepository.existsById(itemId)) {
+            return new ItemNotFoundException(String.format("Вещь c id=%d не найдена", itemId));
+        }
+        if (!userRepository.existsById(userId)) {
+            return new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId));
+        }
+        return new BadRequestException("Нельзя оставить комменатрий к вещи, если она не была взята в аренду " +
+                "или аренда еще не началась");
     }
 }
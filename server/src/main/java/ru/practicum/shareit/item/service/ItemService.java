@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
-    Collection<ItemDto> findAll();
+    List<ItemDto> findAllAfter(Long afterId, int limit);
 
-    Collection<ItemDto> getUserItems(Long userId, Integer from, Integer size);
+    List<ItemDto> getUserItems(Long userId, Integer from, Integer size, String cursor);
 
     ItemDto createItem(Long userId, ItemDto itemDto);
 
@@ -16,7 +20,12 @@ public interface ItemService {
 
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
-    Collection<ItemDto> searchItem(String word, Integer from, Integer size);
+    Collection<ItemDto> searchItem(String word, LocalDateTime start, LocalDateTime end, Integer from, Integer size,
+                                   String engine);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, Integer limit);
+
+    List<AvailabilityWindowDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     void deleteItem(Long itemId);
 }
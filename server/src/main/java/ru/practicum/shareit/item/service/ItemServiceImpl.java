@@ -2,27 +2,39 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.nearest.NearestBookingSource;
+import ru.practicum.shareit.booking.nearest.NearestBookings;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.comment.RecentComments;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.exception.ItemCannotBeUpdatedException;
+import ru.practicum.shareit.item.event.ItemEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngineSelector;
+import ru.practicum.shareit.item.search.ItemSuggestionIndex;
+import ru.practicum.shareit.item.search.SearchResultCache;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -34,28 +46,39 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
-    private final CommentRepository commentRepository;
+    private final RecentComments recentComments;
     private final ItemRequestRepository requestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final NearestBookingSource nearestBookingSource;
+    private final ItemSearchEngineSelector searchEngineSelector;
+    private final ItemSuggestionIndex suggestionIndex;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public Collection<ItemDto> findAll() {
-        return itemRepository.findAll()
-                .stream()
-                .map(item -> ItemMapper.toItemDto(item, commentRepository.findByItemOrderByIdAsc(item), bookingRepository.findByItem(item)))
+    public List<ItemDto> findAllAfter(Long afterId, int limit) {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<CommentShortDto>> commentsByItem = recentComments.forItems(items.stream()
+                .map(Item::getId).collect(Collectors.toList()));
+        return items.stream()
+                .map(item -> ItemMapper.toItemDto(item,
+                        commentsByItem.getOrDefault(item.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<ItemDto> getUserItems(Long userId, Integer from, Integer size) {
+    public List<ItemDto> getUserItems(Long userId, Integer from, Integer size, String cursor) {
         User owner = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
 
-        PageRequest page = PageRequest.of(from / size, size);
-        List<Item> userItem = itemRepository.findByOwner(owner, page);
-        return userItem.stream().map(item ->
-                        ItemMapper.toItemDto(item, commentRepository.findByItemOrderByIdAsc(item), bookingRepository.findByItem(item)))
-                .sorted(this::compareBookingDates).collect(Collectors.toList());
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        PageRequest page = after == null ? PageRequest.of(from / size, size) : PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> userItem = itemRepository.findByOwnerOrderByNextBooking(owner, now, after, page);
+        return toItemDtos(userItem, now);
     }
 
     @Override
@@ -70,6 +93,7 @@ public class ItemServiceImpl implements ItemService {
                     new RequestNotFoundException(String.format("Запрос с id=%d не найден", item.getRequestId())));
         }
         itemRepository.save(item);
+        eventPublisher.publishEvent(ItemMapper.toItemEvent(item));
         log.info("Пользователь с id={} добавил новую вещь", owner.getId());
         return ItemMapper.toItemDto(item);
     }
@@ -78,10 +102,11 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto getItemById(Long itemId, Long userId) {
         Optional<Item> itemOptional = itemRepository.findById(itemId);
         Item item = itemOptional.orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id=%d не найдена", itemId)));
-        List<Comment> comments = commentRepository.findByItemOrderByIdAsc(item);
-        List<Booking> bookings = bookingRepository.findByItem(item);
+        List<CommentShortDto> comments = recentComments.forItem(itemId);
         if (item.getOwner().getId().equals(userId)) {
-            return ItemMapper.toItemDto(item, comments, bookings);
+            NearestBookings nearest = nearestBookingSource.findNearest(List.of(itemId), LocalDateTime.now())
+                    .getOrDefault(itemId, NearestBookings.NONE);
+            return ItemMapper.toItemDto(item, comments, nearest.getLast(), nearest.getNext());
         }
         log.info("Вещь с id={} успешно получена", itemId);
         return ItemMapper.toItemDto(item, comments);
@@ -101,25 +126,69 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("Вещь с id={} успешно обновлена", itemId);
         itemRepository.save(itemForUpdate);
+        eventPublisher.publishEvent(ItemMapper.toItemEvent(itemForUpdate));
         return ItemMapper.toItemDto(itemForUpdate);
     }
 
     @Override
-    public Collection<ItemDto> searchItem(String word, Integer from, Integer size) {
+    public Collection<ItemDto> searchItem(String word, LocalDateTime start, LocalDateTime end, Integer from, Integer size,
+                                          String engine) {
+        if (start == null && end == null) {
+            ItemSearchEngine searchEngine = searchEngineSelector.select(engine);
+            String text = SearchResultCache.normalize(word);
+            return searchResultCache.get(searchEngine.type(), text, from, size, () ->
+                    searchEngine.search(text, PageRequest.of(from / size, size)).stream()
+                            .map(ItemMapper::toItemDto).collect(Collectors.toList()));
+        }
         PageRequest page = PageRequest.of(from / size, size, Sort.by("name").ascending());
-        return itemRepository.search(word, page).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new BadRequestException("Период поиска свободных вещей указан некорректно");
+        }
+        return itemRepository.searchAvailable(word, start, end, page).stream()
+                .map(ItemMapper::toItemDto).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, Integer limit) {
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<AvailabilityWindowDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания");
+        }
+        if (!bookingIntervalIndex.hasBookings(itemId) && !itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(String.format("Вещь с id=%d не найдена", itemId));
+        }
+        log.info("Получено расписание доступности вещи с id={}", itemId);
+        return bookingIntervalIndex.freeWindows(itemId, from, to);
     }
 
     @Override
     @Transactional
     public void deleteItem(Long itemId) {
         itemRepository.deleteById(itemId);
+        eventPublisher.publishEvent(ItemEvent.builder().itemId(itemId).deleted(true).build());
     }
 
-    private int compareBookingDates(ItemDto itemDto1, ItemDto itemDto2) {
-        if (itemDto1.getNextBooking() == null && itemDto2.getNextBooking() == null) return 0;
-        if (itemDto1.getNextBooking() == null) return 1;
-        if (itemDto2.getNextBooking() == null) return -1;
-        return -itemDto1.getNextBooking().getStart().compareTo(itemDto2.getNextBooking().getStart());
+    private List<ItemDto> toItemDtos(List<Item> items, LocalDateTime now) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, List<CommentShortDto>> commentsByItem = recentComments.forItems(itemIds);
+        Map<Long, NearestBookings> nearestByItem = nearestBookingSource.findNearest(itemIds, now);
+        return items.stream()
+                .map(item -> {
+                    NearestBookings nearest = nearestByItem.getOrDefault(item.getId(), NearestBookings.NONE);
+                    return ItemMapper.toItemDto(item,
+                            commentsByItem.getOrDefault(item.getId(), Collections.emptyList()),
+                            nearest.getLast(), nearest.getNext());
+                })
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Component
+@Slf4j
+public class ItemCatalogueWriter {
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final ItemService itemService;
+    private final ObjectWriter objectWriter;
+    private final int chunkSize;
+
+    public ItemCatalogueWriter(ItemService itemService,
+                               ObjectMapper objectMapper,
+                               @Value("${shareit.items.stream.chunk-size:500}") int chunkSize) {
+        this.itemService = itemService;
+        this.objectWriter = objectMapper.writerFor(ItemDto.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public void writeAll(OutputStream out) throws IOException {
+        long afterId = 0L;
+        long written = 0L;
+        List<ItemDto> chunk;
+        do {
+            chunk = itemService.findAllAfter(afterId, chunkSize);
+            for (ItemDto itemDto : chunk) {
+                out.write(objectWriter.writeValueAsBytes(itemDto));
+                out.write(LINE_SEPARATOR);
+                afterId = itemDto.getId();
+            }
+            out.flush();
+            written += chunk.size();
+        } while (chunk.size() == chunkSize);
+        log.info("Каталог вещей выгружен потоком: {} вещей", written);
+    }
+}
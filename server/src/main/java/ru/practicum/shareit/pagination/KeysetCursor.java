@@ -0,0 +1,34 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Data;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Data
+public class KeysetCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime position;
+    private final Long id;
+
+    public String encode() {
+        String raw = (position == null ? "" : position.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String position = raw.substring(0, separator);
+            return new KeysetCursor(position.isEmpty() ? null : LocalDateTime.parse(position),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Некорректный курсор: " + token);
+        }
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_comments_item_author ON comments (item_id, author_id);
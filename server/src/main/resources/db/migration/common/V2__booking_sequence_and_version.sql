@@ -0,0 +1,5 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_date, end_date);
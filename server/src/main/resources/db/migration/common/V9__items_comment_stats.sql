@@ -0,0 +1,8 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_authors BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_comment_at TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE items SET
+  comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id),
+  comment_authors = (SELECT COUNT(DISTINCT c.author_id) FROM comments c WHERE c.item_id = items.id),
+  last_comment_at = (SELECT MAX(c.created) FROM comments c WHERE c.item_id = items.id);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
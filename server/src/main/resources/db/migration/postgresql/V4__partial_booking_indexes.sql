@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date, id) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_active_item_start_end ON bookings (item_id, start_date, end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
@@ -0,0 +1,32 @@
+ALTER TABLE bookings RENAME TO bookings_legacy;
+
+CREATE TABLE bookings (
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(60) DEFAULT 'WAITING',
+  version BIGINT NOT NULL DEFAULT 0,
+
+  CONSTRAINT pk_bookings PRIMARY KEY (id, end_date),
+  CONSTRAINT fk_booking_user FOREIGN KEY(booker_id) REFERENCES users(id),
+  CONSTRAINT fk_booking_item FOREIGN KEY(item_id) REFERENCES items(id)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_live PARTITION OF bookings DEFAULT;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, version)
+SELECT id, start_date, COALESCE(end_date, start_date), item_id, booker_id, status, version
+FROM bookings_legacy;
+
+DROP TABLE bookings_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date, id) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_active_item_start_end ON bookings (item_id, start_date, end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class JpaSchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allMigrationsApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(flyway.info().all().length, flyway.info().applied().length);
+    }
+
+    @Test
+    void hotPathIndexesCreated() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+
+        assertTrue(indexes.containsAll(List.of("idx_bookings_item_start_end", "idx_bookings_booker_start",
+                "idx_items_owner", "idx_items_request", "idx_comments_item", "idx_requests_requestor_created",
+                "idx_bookings_status_start")));
+    }
+}
@@ -7,16 +7,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.notNullValue;
@@ -63,6 +67,27 @@ public class BookingControllerTest {
         verify(bookingService).createBooking(anyLong(), any(BookingShortDto.class));
     }
 
+    @Test
+    void createBookings() throws Exception {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Вещь уже забронирована на указанные даты").build());
+        when(bookingService.createBookings(anyLong(), anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(bookingShortDto, bookingShortDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].error", is(notNullValue())));
+
+        verify(bookingService).createBookings(anyLong(), anyList());
+    }
+
     @Test
     void approveBooking() throws Exception {
         when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean())).thenReturn(approvedBooking);
@@ -99,7 +124,7 @@ public class BookingControllerTest {
 
     @Test
     void getUserBookings() throws Exception {
-        when(bookingService.getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt()))
+        when(bookingService.getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt(), isNull()))
                 .thenReturn(List.of(bookingDto, approvedBooking));
 
         mockMvc.perform(get("/bookings")
@@ -120,12 +145,12 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[1].booker.id", is(approvedBooking.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[1].item.id", is(approvedBooking.getItem().getId()), Long.class));
 
-        verify(bookingService).getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt());
+        verify(bookingService).getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), anyInt(), isNull());
     }
 
     @Test
     void getBookingsForUserItems() throws Exception {
-        when(bookingService.getBookingsForUserItems(anyLong(), eq("ALL"), anyInt(), anyInt()))
+        when(bookingService.getBookingsForUserItems(anyLong(), eq("ALL"), anyInt(), anyInt(), isNull()))
                 .thenReturn(List.of(bookingDto, approvedBooking));
 
         mockMvc.perform(get("/bookings/owner")
@@ -146,6 +171,49 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[1].booker.id", is(approvedBooking.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[1].item.id", is(approvedBooking.getItem().getId()), Long.class));
 
-        verify(bookingService).getBookingsForUserItems(anyLong(), eq("ALL"), anyInt(), anyInt());
+        verify(bookingService).getBookingsForUserItems(anyLong(), eq("ALL"), anyInt(), anyInt(), isNull());
+    }
+
+    @Test
+    void getUserBookingsReturnsNextCursorForFullPage() throws Exception {
+        String cursor = new KeysetCursor(bookingDto.getStart(), 7L).encode();
+        when(bookingService.getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), eq(2), eq(cursor)))
+                .thenReturn(List.of(approvedBooking, bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(bookingDto.getStart(), bookingDto.getId()).encode()));
+
+        verify(bookingService).getAllBookingsByUser(anyLong(), eq("ALL"), anyInt(), eq(2), eq(cursor));
+    }
+
+    @Test
+    void getBookingsForUserItemsWithoutNextCursorForLastPage() throws Exception {
+        when(bookingService.getBookingsForUserItems(anyLong(), eq("ALL"), anyInt(), anyInt(), isNull()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getOwnerBookingSummary() throws Exception {
+        when(bookingService.getOwnerBookingSummary(1L))
+                .thenReturn(Map.of(StateOfBookingRequest.ALL, 5L, StateOfBookingRequest.WAITING, 2L));
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL", is(5)))
+                .andExpect(jsonPath("$.WAITING", is(2)));
+
+        verify(bookingService).getOwnerBookingSummary(1L);
     }
 }
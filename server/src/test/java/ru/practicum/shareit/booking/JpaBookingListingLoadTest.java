@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.booking.JpaBookingListingLoadTest$LastBookingStatement")
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.load-tests", matches = "true")
+public class JpaBookingListingLoadTest {
+    private static final int BOOKINGS = Integer.getInteger("shareit.load-tests.bookings", 1_000_000);
+    private static final int ITEMS = 10_000;
+    private static final int BOOKERS = 1_000;
+    private static final long HEAVY_OWNER_ID = 1_000_001L;
+    private static final long OTHER_OWNER_ID = 1_000_002L;
+    private static final long HEAVY_BOOKER_ID = 1_000_003L;
+    private static final long FIRST_BOOKER_ID = 1_000_010L;
+    private static final long FIRST_ITEM_ID = 1_000_001L;
+    private static final int PAGE_SIZE = 20;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestEntityManager entityManager;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final LocalDateTime liveSince = now.minusDays(180);
+
+    @BeforeEach
+    void seed() {
+        long started = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'owner', 'owner@load.test'), " +
+                "(?, 'other', 'other@load.test'), (?, 'heavy', 'heavy@load.test')",
+                HEAVY_OWNER_ID, OTHER_OWNER_ID, HEAVY_BOOKER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT ? + X, 'booker' || X, 'booker' || X || '@load.test' FROM SYSTEM_RANGE(0, ?)",
+                FIRST_BOOKER_ID, BOOKERS - 1);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "SELECT ? + X, 'item' || X, 'description' || X, TRUE, " +
+                "CASE WHEN MOD(X, 10) = 1 THEN ? ELSE ? END FROM SYSTEM_RANGE(0, ?)",
+                FIRST_ITEM_ID, HEAVY_OWNER_ID, OTHER_OWNER_ID, ITEMS - 1);
+        String now = "TIMESTAMP '" + Timestamp.valueOf(this.now) + "'";
+        jdbcTemplate.update(String.format("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT 10000000 + X, DATEADD(HOUR, X - %1$d, %2$s), DATEADD(HOUR, X - %1$d + 500, %2$s), " +
+                "%3$d + MOD(X, %4$d), CASE WHEN MOD(X, 10) = 3 THEN %5$d ELSE %6$d + MOD(X, %7$d) END, " +
+                "CASE MOD(X, 7) WHEN 0 THEN 'REJECTED' WHEN 1 THEN 'WAITING' ELSE 'APPROVED' END " +
+                "FROM SYSTEM_RANGE(0, %8$d)", BOOKINGS / 2, now, FIRST_ITEM_ID, ITEMS, HEAVY_BOOKER_ID,
+                FIRST_BOOKER_ID, BOOKERS, BOOKINGS - 1));
+        log.info("Загружено {} бронирований за {} мс", BOOKINGS, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void benchmarkListingPagesOnLargeDataset() {
+        User booker = entityManager.find(User.class, HEAVY_BOOKER_ID);
+        User owner = entityManager.find(User.class, HEAVY_OWNER_ID);
+        for (StateOfBookingRequest state : StateOfBookingRequest.values()) {
+            report("арендатор", state, HEAVY_BOOKER_ID,
+                    () -> bookingRepository.findByBookerAndState(booker, state, now, liveSince, null,
+                            PageRequest.of(0, PAGE_SIZE)));
+            report("владелец", state, HEAVY_OWNER_ID,
+                    () -> bookingRepository.findByItemOwnerAndState(owner, state, now, liveSince, null,
+                            PageRequest.of(0, PAGE_SIZE)));
+        }
+    }
+
+    private void report(String listing, StateOfBookingRequest state, long userId, Supplier<List<Booking>> page) {
+        entityManager.clear();
+        page.get();
+        entityManager.clear();
+        long started = System.nanoTime();
+        List<Booking> bookings = page.get();
+        long micros = (System.nanoTime() - started) / 1_000;
+
+        assertEquals(PAGE_SIZE, bookings.size(), listing + " " + state);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(userId);
+        parameters.addAll(stateParameters(state));
+        parameters.add(PAGE_SIZE);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + LastBookingStatement.sql, String.class,
+                parameters.toArray());
+        log.info("{} {}: {} строк на странице, прочитано строк {}, {} мкс\n{}",
+                listing, state, bookings.size(), scanCount(plan), micros, plan);
+    }
+
+    private List<Object> stateParameters(StateOfBookingRequest state) {
+        Timestamp now = Timestamp.valueOf(this.now);
+        switch (state) {
+            case CURRENT:
+            case FUTURE:
+                return List.of(now, now);
+            case PAST:
+                return List.of(now);
+            case WAITING:
+                return List.of(BookingStatus.WAITING.name(), Timestamp.valueOf(liveSince));
+            case REJECTED:
+                return List.of(BookingStatus.REJECTED.name());
+            default:
+                return List.of();
+        }
+    }
+
+    private static long scanCount(String plan) {
+        long rows = 0;
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        while (matcher.find()) {
+            rows += Long.parseLong(matcher.group(1));
+        }
+        return rows;
+    }
+
+    public static class LastBookingStatement implements StatementInspector {
+        private static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("from bookings")) {
+                LastBookingStatement.sql = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -6,21 +6,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookerStart;
+import ru.practicum.shareit.booking.model.OwnerBookingFact;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 public class JpaBookingRepositoryTest {
+    private static final LocalDateTime LIVE_SINCE = LocalDateTime.now().minusYears(1);
     @Autowired
     private ItemRepository itemRepository;
     @Autowired
@@ -50,8 +59,9 @@ public class JpaBookingRepositoryTest {
     }
 
     @Test
-    void findByItem() {
-        List<Booking> actualBookings = bookingRepository.findByItem(item);
+    void findByBookerAndState() {
+        List<Booking> actualBookings = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.ALL,
+                LocalDateTime.now(), LIVE_SINCE, null, PageRequest.of(0, 10));
 
         assertFalse(actualBookings.isEmpty());
         assertEquals(1, actualBookings.size());
@@ -65,8 +75,9 @@ public class JpaBookingRepositoryTest {
     }
 
     @Test
-    void findByBooker() {
-        List<Booking> actualBookings = bookingRepository.findByBooker(booker, PageRequest.of(0, 10));
+    void findByItemOwnerAndState() {
+        List<Booking> actualBookings = bookingRepository.findByItemOwnerAndState(owner, StateOfBookingRequest.ALL,
+                LocalDateTime.now(), LIVE_SINCE, null, PageRequest.of(0, 10));
 
         assertFalse(actualBookings.isEmpty());
         assertEquals(1, actualBookings.size());
@@ -80,25 +91,123 @@ public class JpaBookingRepositoryTest {
     }
 
     @Test
-    void findByItem_Owner() {
-        List<Booking> actualBookings = bookingRepository.findByItem_Owner(owner, PageRequest.of(0, 10));
+    void findByBookerAndStateReturnsFullPagesOfMatchingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            bookingRepository.save(Booking.builder().start(now.minusDays(i * 2L)).end(now.minusDays(i * 2L - 1))
+                    .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder().start(now.plusDays(i)).end(now.plusDays(i).plusHours(1))
+                    .item(item).booker(booker).status(BookingStatus.WAITING).build());
+        }
+
+        List<Booking> past = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.PAST, now, LIVE_SINCE, null,
+                PageRequest.of(0, 3));
+        List<Booking> future = bookingRepository.findByItemOwnerAndState(owner, StateOfBookingRequest.FUTURE, now, LIVE_SINCE, null,
+                PageRequest.of(1, 3));
+        List<Booking> rejected = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.REJECTED, now, LIVE_SINCE, null,
+                PageRequest.of(0, 3));
+
+        assertEquals(3, past.size());
+        assertTrue(past.stream().allMatch(booking -> booking.getEnd().isBefore(now)));
+        assertTrue(past.get(0).getStart().isAfter(past.get(1).getStart()));
+        assertEquals(2, future.size());
+        assertTrue(future.stream().allMatch(booking -> booking.getStart().isAfter(now)));
+        assertTrue(rejected.isEmpty());
+    }
 
-        assertFalse(actualBookings.isEmpty());
-        assertEquals(1, actualBookings.size());
+    @Test
+    void findByBookerAndStateWaitingSkipsBookingsBeyondLiveHorizon() {
+        bookingRepository.save(Booking.builder().start(LIVE_SINCE.minusDays(2)).end(LIVE_SINCE.minusDays(1))
+                .item(item).booker(booker).status(BookingStatus.WAITING).build());
 
-        Booking actualBooking = actualBookings.get(0);
-        assertNotNull(actualBooking.getStart());
-        assertNotNull(actualBooking.getEnd());
-        assertEquals(item, actualBooking.getItem());
-        assertEquals(booker, actualBooking.getBooker());
-        assertEquals(BookingStatus.WAITING, actualBooking.getStatus());
+        List<Booking> waiting = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.WAITING,
+                LocalDateTime.now(), LIVE_SINCE, null, PageRequest.of(0, 10));
+
+        assertEquals(1, waiting.size());
+        assertEquals(booking.getId(), waiting.get(0).getId());
+    }
+
+    @Test
+    void findByBookerAndStateWaitingWithoutLiveHorizon() {
+        bookingRepository.save(Booking.builder().start(LIVE_SINCE.minusDays(2)).end(LIVE_SINCE.minusDays(1))
+                .item(item).booker(booker).status(BookingStatus.WAITING).build());
+
+        List<Booking> waiting = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.WAITING,
+                LocalDateTime.now(), null, null, PageRequest.of(0, 10));
+
+        assertEquals(2, waiting.size());
+    }
+
+    @Test
+    void findByBookerAndStateAfterCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            bookingRepository.save(Booking.builder().start(start).end(start.plusHours(1))
+                    .item(item).booker(booker).status(BookingStatus.WAITING).build());
+        }
+
+        List<Booking> firstPage = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.FUTURE,
+                LocalDateTime.now(), LIVE_SINCE, null, PageRequest.of(0, 3));
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findByBookerAndState(booker, StateOfBookingRequest.FUTURE,
+                LocalDateTime.now(), LIVE_SINCE, new KeysetCursor(last.getStart(), last.getId()), PageRequest.of(0, 3));
+
+        assertEquals(3, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getId() < last.getId());
+        assertTrue(firstPage.stream().noneMatch(booking -> booking.getId().equals(secondPage.get(0).getId())));
+    }
+
+    @Test
+    void findEarliestStart() {
+        bookingRepository.save(Booking.builder().start(booking.getStart().minusDays(3))
+                .end(booking.getStart().minusDays(2)).item(item).booker(booker).status(BookingStatus.REJECTED).build());
+
+        LocalDateTime earliest = bookingRepository.findEarliestStart(item.getId(), booker.getId()).orElseThrow();
+
+        assertTrue(Duration.between(booking.getStart(), earliest).abs().toMillis() < 1);
+        assertTrue(bookingRepository.findEarliestStart(item.getId(), owner.getId()).isEmpty());
+    }
+
+    @Test
+    void findEarliestStarts() {
+        bookingRepository.save(Booking.builder().start(booking.getStart().plusDays(3))
+                .end(booking.getStart().plusDays(4)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+
+        List<ItemBookerStart> starts = bookingRepository.findEarliestStarts();
+
+        assertEquals(1, starts.size());
+        assertEquals(item.getId(), starts.get(0).getItemId());
+        assertEquals(booker.getId(), starts.get(0).getBookerId());
+        assertTrue(Duration.between(booking.getStart(), starts.get(0).getStart()).abs().toMillis() < 1);
+    }
+
+    @Test
+    void existsOverlappingBooking() {
+        assertTrue(bookingRepository.existsOverlappingBooking(item, booking.getStart().plusHours(1),
+                booking.getEnd().plusHours(1)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item, booking.getEnd().plusMinutes(1),
+                booking.getEnd().plusHours(1)));
+    }
+
+    @Test
+    void findIntervalsByStatusIn() {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusIn(BookingIntervalIndex.ACTIVE_STATUSES);
+
+        assertEquals(1, intervals.size());
+        assertEquals(booking.getId(), intervals.get(0).getId());
+        assertEquals(item.getId(), intervals.get(0).getItemId());
+        assertEquals(booking.getBooker().getId(), intervals.get(0).getBookerId());
+        assertEquals(booking.getStatus(), intervals.get(0).getStatus());
+        assertTrue(bookingRepository.findIntervalsByStatusIn(List.of(BookingStatus.REJECTED)).isEmpty());
     }
 
     @Test
-    void existsBookingByItemAndBookerAndStatusNotAndStart() {
-        Boolean result = bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(
-                item, booker, LocalDateTime.now().plusMinutes(10));
+    void findOwnerBookingFacts() {
+        List<OwnerBookingFact> facts = bookingRepository.findOwnerBookingFacts();
 
-        assertEquals(true, result);
+        assertEquals(1, facts.size());
+        assertEquals(owner.getId(), facts.get(0).getOwnerId());
+        assertEquals(BookingStatus.WAITING, facts.get(0).getStatus());
     }
 }
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.nearest.NearestBookingSource;
+import ru.practicum.shareit.booking.nearest.NearestBookings;
+import ru.practicum.shareit.booking.nearest.QueryNearestBookingSource;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Slf4j
+public class JpaNearestBookingQueryTest {
+    private static final int BENCHMARK_BOOKINGS = 10_000;
+    private static final int BENCHMARK_ROUNDS = 5;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    private NearestBookingSource nearestBookingSource;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final User owner = User.builder().name("owner").email("owner@mail.ru").build();
+    private final User booker = User.builder().name("booker").email("booker@mail.ru").build();
+
+    @BeforeEach
+    void setUp() {
+        nearestBookingSource = new QueryNearestBookingSource(bookingRepository);
+        userRepository.save(owner);
+        userRepository.save(booker);
+    }
+
+    @Test
+    void findNearestReturnsLatestPastAndEarliestFutureActiveBookings() {
+        Item item = saveItem("Дрель");
+        Item futureOnly = saveItem("Пила");
+        Item notBooked = saveItem("Молоток");
+        Booking last = saveBooking(item, now.minusDays(2), BookingStatus.WAITING);
+        saveBooking(item, now.minusDays(5), BookingStatus.APPROVED);
+        saveBooking(item, now.minusDays(1), BookingStatus.REJECTED);
+        Booking next = saveBooking(item, now.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(item, now.plusDays(3), BookingStatus.WAITING);
+        saveBooking(item, now.plusHours(1), BookingStatus.CANCELED);
+        Booking futureOnlyNext = saveBooking(futureOnly, now.plusDays(2), BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Long, NearestBookings> nearest = nearestBookingSource.findNearest(
+                List.of(item.getId(), futureOnly.getId(), notBooked.getId()), now);
+
+        assertEquals(new NearestBookings(BookingMapper.toShortBookingDto(last), BookingMapper.toShortBookingDto(next)),
+                nearest.get(item.getId()));
+        assertEquals(new NearestBookings(null, BookingMapper.toShortBookingDto(futureOnlyNext)),
+                nearest.get(futureOnly.getId()));
+        assertFalse(nearest.containsKey(notBooked.getId()));
+    }
+
+    @Test
+    void benchmarkFindNearestAgainstBookingHistoryScan() {
+        Item item = saveItem("Палатка");
+        List<Booking> bookings = new ArrayList<>(BENCHMARK_BOOKINGS);
+        for (int i = 0; i < BENCHMARK_BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(2L * (i - BENCHMARK_BOOKINGS / 2) + 1);
+            bookings.add(Booking.builder().item(item).booker(booker).start(start).end(start.plusHours(1))
+                    .status(i % 10 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED).build());
+        }
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+        entityManager.clear();
+
+        NearestBookings fromQuery = nearestBookingSource.findNearest(List.of(item.getId()), now).get(item.getId());
+        NearestBookings fromHistory = nearestFromHistory(item);
+        assertEquals(fromHistory, fromQuery);
+
+        long queryNanos = measure(() -> nearestBookingSource.findNearest(List.of(item.getId()), now));
+        long historyNanos = measure(() -> nearestFromHistory(item));
+        log.info("Ближайшие бронирования вещи с {} бронированиями: запрос {} мкс, загрузка истории {} мкс",
+                BENCHMARK_BOOKINGS, queryNanos / 1_000, historyNanos / 1_000);
+    }
+
+    private NearestBookings nearestFromHistory(Item item) {
+        List<Booking> history = entityManager.getEntityManager()
+                .createQuery("select b from Booking b where b.item = :item", Booking.class)
+                .setParameter("item", item)
+                .getResultList();
+        entityManager.clear();
+        BookingShortDto last = history.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING
+                        || booking.getStatus() == BookingStatus.APPROVED)
+                .filter(booking -> booking.getStart().isBefore(now))
+                .max(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .map(BookingMapper::toShortBookingDto)
+                .orElse(null);
+        BookingShortDto next = history.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING
+                        || booking.getStatus() == BookingStatus.APPROVED)
+                .filter(booking -> booking.getStart().isAfter(now))
+                .min(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .map(BookingMapper::toShortBookingDto)
+                .orElse(null);
+        return new NearestBookings(last, next);
+    }
+
+    private long measure(Supplier<?> action) {
+        action.get();
+        long started = System.nanoTime();
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            assertNotNull(action.get());
+        }
+        return (System.nanoTime() - started) / BENCHMARK_ROUNDS;
+    }
+
+    private Item saveItem(String name) {
+        return itemRepository.save(Item.builder().name(name).description(name).available(true).owner(owner).build());
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder().item(item).booker(booker).start(start)
+                .end(start.plusHours(12)).status(status).build());
+    }
+}
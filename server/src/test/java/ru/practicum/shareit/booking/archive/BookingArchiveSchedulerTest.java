@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingArchiveSchedulerTest {
+    @Mock
+    private BookingArchiveRepository archiveRepository;
+    private final BookingArchiveHorizon archiveHorizon = new BookingArchiveHorizon(90, true);
+
+    @Test
+    void testLiveBoundaryStartsAtMonthOfHorizon() {
+        LocalDateTime now = LocalDateTime.of(2030, 6, 15, 12, 0);
+
+        assertEquals(LocalDateTime.of(2030, 3, 1, 0, 0), archiveHorizon.liveBoundary(now));
+    }
+
+    @Test
+    void testWaitingBoundaryOnlyWhenExpiryEnabled() {
+        LocalDateTime now = LocalDateTime.of(2030, 6, 15, 12, 0);
+
+        assertEquals(archiveHorizon.liveBoundary(now), archiveHorizon.waitingBoundary(now));
+        assertNull(new BookingArchiveHorizon(90, false).waitingBoundary(now));
+    }
+
+    @Test
+    void testArchiveEveryMonthBeforeLiveBoundary() {
+        YearMonth liveSince = YearMonth.from(archiveHorizon.liveBoundary(LocalDateTime.now()));
+        when(archiveRepository.findOldestLiveEnd())
+                .thenReturn(Optional.of(liveSince.minusMonths(3).atDay(10).atStartOfDay()));
+
+        new BookingArchiveScheduler(archiveRepository, archiveHorizon).archiveFinishedBookings();
+
+        verify(archiveRepository).archiveMonth(liveSince.minusMonths(3));
+        verify(archiveRepository).archiveMonth(liveSince.minusMonths(2));
+        verify(archiveRepository).archiveMonth(liveSince.minusMonths(1));
+        verify(archiveRepository, never()).archiveMonth(liveSince);
+    }
+
+    @Test
+    void testSkipAlreadyArchivedMonth() {
+        YearMonth liveSince = YearMonth.from(archiveHorizon.liveBoundary(LocalDateTime.now()));
+        when(archiveRepository.findOldestLiveEnd())
+                .thenReturn(Optional.of(liveSince.minusMonths(2).atDay(10).atStartOfDay()));
+        when(archiveRepository.isArchived(liveSince.minusMonths(2))).thenReturn(false);
+        when(archiveRepository.isArchived(liveSince.minusMonths(1))).thenReturn(true);
+
+        new BookingArchiveScheduler(archiveRepository, archiveHorizon).archiveFinishedBookings();
+
+        verify(archiveRepository).archiveMonth(liveSince.minusMonths(2));
+        verify(archiveRepository, never()).archiveMonth(liveSince.minusMonths(1));
+    }
+
+    @Test
+    void testNothingToArchive() {
+        when(archiveRepository.findOldestLiveEnd()).thenReturn(Optional.of(LocalDateTime.now()));
+
+        new BookingArchiveScheduler(archiveRepository, archiveHorizon).archiveFinishedBookings();
+
+        verify(archiveRepository, never()).archiveMonth(any());
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingExpirySchedulerTest {
+    @Mock
+    private BookingService bookingService;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingExpiryScheduler scheduler;
+
+    @BeforeEach
+    void init() {
+        scheduler = new BookingExpiryScheduler(bookingService, meterRegistry, 10, 3);
+    }
+
+    @Test
+    void testExpireStaleBookingsUntilBatchIsNotFull() {
+        when(bookingService.expireStaleBookings(any(), eq(10))).thenReturn(10, 4);
+        when(bookingService.findOldestStaleBookingStart(any())).thenReturn(Optional.empty());
+
+        scheduler.expireStaleBookings();
+
+        verify(bookingService, times(2)).expireStaleBookings(any(), eq(10));
+        assertEquals(14, meterRegistry.get("shareit.bookings.expired").counter().count());
+        assertEquals(0, meterRegistry.get("shareit.bookings.expiry.lag").gauge().value());
+    }
+
+    @Test
+    void testExpireStaleBookingsIsBoundedPerRun() {
+        when(bookingService.expireStaleBookings(any(), eq(10))).thenReturn(10);
+        when(bookingService.findOldestStaleBookingStart(any()))
+                .thenReturn(Optional.of(LocalDateTime.now().minusMinutes(5)));
+
+        scheduler.expireStaleBookings();
+
+        verify(bookingService, times(3)).expireStaleBookings(any(), eq(10));
+        assertEquals(30, meterRegistry.get("shareit.bookings.expired").counter().count());
+        assertTrue(meterRegistry.get("shareit.bookings.expiry.lag").gauge().value() >= 300);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void testFreeWindowsWithLongBookingBeforeShortOnes() {
+        bookingIntervalIndex.add(1L, 1L, 2L, now, now.plusDays(10), BookingStatus.APPROVED);
+        bookingIntervalIndex.add(1L, 2L, 2L, now.plusHours(1), now.plusHours(2), BookingStatus.APPROVED);
+
+        assertTrue(bookingIntervalIndex.freeWindows(1L, now.plusDays(5), now.plusDays(6)).isEmpty());
+    }
+
+    @Test
+    void testFreeWindows() {
+        LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+        bookingIntervalIndex.add(1L, 1L, 2L, day.plusHours(2), day.plusHours(4), BookingStatus.APPROVED);
+        bookingIntervalIndex.add(1L, 2L, 2L, day.plusHours(3), day.plusHours(5), BookingStatus.APPROVED);
+        bookingIntervalIndex.add(1L, 3L, 2L, day.plusHours(8), day.plusHours(9), BookingStatus.APPROVED);
+
+        List<AvailabilityWindowDto> windows = bookingIntervalIndex.freeWindows(1L, day.plusHours(1), day.plusHours(10));
+
+        assertEquals(List.of(new AvailabilityWindowDto(day.plusHours(1), day.plusHours(2)),
+                new AvailabilityWindowDto(day.plusHours(5), day.plusHours(8)),
+                new AvailabilityWindowDto(day.plusHours(9), day.plusHours(10))), windows);
+        assertEquals(List.of(new AvailabilityWindowDto(day.plusHours(5), day.plusHours(6))),
+                bookingIntervalIndex.freeWindows(1L, day.plusHours(4), day.plusHours(6)));
+        assertTrue(bookingIntervalIndex.freeWindows(1L, day.plusHours(2), day.plusHours(5)).isEmpty());
+        assertEquals(List.of(new AvailabilityWindowDto(day, day.plusHours(1))),
+                bookingIntervalIndex.freeWindows(2L, day, day.plusHours(1)));
+    }
+
+    @Test
+    void testRemove() {
+        bookingIntervalIndex.add(1L, 1L, 2L, now.plusHours(1), now.plusHours(2), BookingStatus.APPROVED);
+        assertTrue(bookingIntervalIndex.hasBookings(1L));
+
+        bookingIntervalIndex.remove(1L, 1L);
+
+        assertFalse(bookingIntervalIndex.hasBookings(1L));
+    }
+
+    @Test
+    void testOnBookingEvent() {
+        BookingEvent created = BookingEvent.builder().bookingId(1L).itemId(1L).bookerId(2L).ownerId(3L)
+                .start(now.plusHours(1)).end(now.plusHours(2)).status(BookingStatus.WAITING).build();
+        bookingIntervalIndex.onBookingEvent(created);
+
+        assertTrue(bookingIntervalIndex.hasBookings(1L));
+
+        BookingEvent rejected = BookingEvent.builder().bookingId(1L).itemId(1L).bookerId(2L).ownerId(3L)
+                .start(now.plusHours(1)).end(now.plusHours(2)).previousStatus(BookingStatus.WAITING)
+                .status(BookingStatus.REJECTED).build();
+        bookingIntervalIndex.onBookingEvent(rejected);
+
+        assertFalse(bookingIntervalIndex.hasBookings(1L));
+    }
+
+    @Test
+    void testLastAndNextBooking() {
+        LocalDateTime day = LocalDateTime.of(2030, 1, 1, 12, 0, 0, 123_456_000);
+        bookingIntervalIndex.add(1L, 3L, 4L, day.plusDays(3), day.plusDays(4), BookingStatus.WAITING);
+        bookingIntervalIndex.add(1L, 1L, 2L, day.minusDays(5), day.minusDays(4), BookingStatus.APPROVED);
+        bookingIntervalIndex.add(1L, 4L, 2L, day.plusDays(1), day.plusDays(2), BookingStatus.APPROVED);
+        bookingIntervalIndex.add(1L, 2L, 3L, day.minusDays(2), day.minusDays(1), BookingStatus.APPROVED);
+
+        BookingShortDto last = bookingIntervalIndex.lastBooking(1L, day);
+        BookingShortDto next = bookingIntervalIndex.nextBooking(1L, day);
+
+        assertEquals(BookingShortDto.builder().id(2L).start(day.minusDays(2)).end(day.minusDays(1)).itemId(1L)
+                .bookerId(3L).status("APPROVED").build(), last);
+        assertEquals(BookingShortDto.builder().id(4L).start(day.plusDays(1)).end(day.plusDays(2)).itemId(1L)
+                .bookerId(2L).status("APPROVED").build(), next);
+        assertEquals(4L, bookingIntervalIndex.lastBooking(1L, day.plusDays(2)).getId());
+        assertEquals(3L, bookingIntervalIndex.nextBooking(1L, day.plusDays(2)).getId());
+        assertNull(bookingIntervalIndex.lastBooking(1L, day.minusDays(5)));
+        assertNull(bookingIntervalIndex.nextBooking(1L, day.plusDays(3)));
+        assertNull(bookingIntervalIndex.lastBooking(2L, day));
+    }
+
+    @Test
+    void testOnBookingEventUpdatesStatusOfActiveBooking() {
+        BookingEvent approved = BookingEvent.builder().bookingId(1L).itemId(1L).bookerId(2L).ownerId(3L)
+                .start(now.plusHours(1)).end(now.plusHours(2)).previousStatus(BookingStatus.WAITING)
+                .status(BookingStatus.APPROVED).build();
+        bookingIntervalIndex.add(1L, 1L, 2L, now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+
+        bookingIntervalIndex.onBookingEvent(approved);
+
+        assertEquals("APPROVED", bookingIntervalIndex.nextBooking(1L, now).getStatus());
+    }
+}
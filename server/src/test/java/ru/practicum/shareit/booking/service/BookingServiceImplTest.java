@@ -5,17 +5,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.archive.BookingArchiveHorizon;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.OwnerBookingSummaryIndex;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -23,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -36,6 +44,12 @@ public class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OwnerBookingSummaryIndex ownerBookingSummaryIndex;
+    @Spy
+    private BookingArchiveHorizon archiveHorizon = new BookingArchiveHorizon(180, true);
     @InjectMocks
     private BookingServiceImpl bookingService;
     private final LocalDateTime now = LocalDateTime.now();
@@ -57,7 +71,7 @@ public class BookingServiceImplTest {
     @Test
     void testCreateBooking() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto actualBookingDto = bookingService.createBooking(booker.getId(), bookingShortDto);
@@ -70,6 +84,20 @@ public class BookingServiceImplTest {
         assertEquals(actualBookingDto.getStatus(), BookingStatus.WAITING);
 
         verify(bookingRepository).save(any());
+        verify(eventPublisher).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void testCreateBookingWhenDatabaseHasOverlap() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlappingBooking(item, bookingShortDto.getStart(), bookingShortDto.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(BookingException.class, () -> bookingService.createBooking(booker.getId(), bookingShortDto));
+
+        verify(bookingRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -89,7 +117,7 @@ public class BookingServiceImplTest {
         bookingShortDto.setItemId(wrongItemId);
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(wrongItemId)).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(wrongItemId)).thenReturn(Optional.empty());
 
         assertThrows(ItemNotFoundException.class, () -> bookingService.createBooking(anyLong(), bookingShortDto));
 
@@ -101,7 +129,7 @@ public class BookingServiceImplTest {
         item.setAvailable(false);
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(BookingException.class, () -> bookingService.createBooking(anyLong(), bookingShortDto));
 
@@ -113,7 +141,7 @@ public class BookingServiceImplTest {
         item.setOwner(booker);
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.createBooking(booker.getId(), bookingShortDto));
 
@@ -123,8 +151,10 @@ public class BookingServiceImplTest {
     @Test
     void testApproveBooking() {
         Long bookingItemOwner = booking.getItem().getOwner().getId();
-
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.updateStatusIfWaiting(booking.getId(), bookingItemOwner, BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         BookingDto actualDto = bookingService.approveBooking(booking.getId(), bookingItemOwner, true);
 
@@ -135,39 +165,37 @@ public class BookingServiceImplTest {
         assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.APPROVED);
 
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(any(BookingEvent.class));
     }
 
     @Test
     void testApproveBookingWhenItemOwnerWantsReject() {
-        booking.setItem(item);
-        booking.setBooker(booker);
-
         Long bookingItemOwner = booking.getItem().getOwner().getId();
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.updateStatusIfWaiting(booking.getId(), bookingItemOwner, BookingStatus.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         BookingDto actualDto = bookingService.approveBooking(booking.getId(), bookingItemOwner, false);
 
         assertEquals(booking.getId(), actualDto.getId());
-        assertEquals(booking.getStart(), actualDto.getStart());
-        assertEquals(booking.getEnd(), actualDto.getEnd());
-        assertEquals(booking.getItem().getId(), actualDto.getItem().getId());
-        assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.REJECTED);
 
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository).updateStatusIfWaiting(booking.getId(), bookingItemOwner, BookingStatus.REJECTED);
     }
 
     @Test
     void testApproveBookingWithWrongBookingId() {
         Long wrongBookingId = 100L;
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), any())).thenReturn(0);
         when(bookingRepository.findById(wrongBookingId)).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.approveBooking(wrongBookingId, booking.getItem().getOwner().getId(), true));
 
         verify(bookingRepository).findById(wrongBookingId);
-        verify(bookingRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -175,24 +203,40 @@ public class BookingServiceImplTest {
         Long bookingItemOwner = booking.getItem().getOwner().getId();
         booking.setStatus(BookingStatus.REJECTED);
 
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), any())).thenReturn(0);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
-        assertThrows(BookingException.class, () ->
+        assertThrowsExactly(BookingException.class, () ->
                 bookingService.approveBooking(booking.getId(), bookingItemOwner, true));
 
-        verify(bookingRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testApproveBookingLostToConcurrentUpdate() {
+        Long bookingItemOwner = booking.getItem().getOwner().getId();
+        booking.setStatus(BookingStatus.WAITING);
+
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), any())).thenReturn(0);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(BookingConflictException.class, () ->
+                bookingService.approveBooking(booking.getId(), bookingItemOwner, true));
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void testApproveBookingWithWrongItemOwner() {
         User notItemOwner = new User(3L, "User3", "user3@mail.ru");
 
+        when(bookingRepository.updateStatusIfWaiting(anyLong(), anyLong(), any())).thenReturn(0);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.approveBooking(booking.getId(), notItemOwner.getId(), true));
 
-        verify(bookingRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -242,30 +286,55 @@ public class BookingServiceImplTest {
     @Test
     void testGetAllBookingsByUser() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.plusHours(1), now.plusHours(2), item, booker, BookingStatus.WAITING));
-        userBookings.add(new Booking(2L, now.plusHours(3), now.plusHours(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, now.plusHours(1), now.plusHours(2), item, booker, BookingStatus.WAITING, 0L));
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBooker(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(bookingRepository.findByBookerAndState(any(User.class), eq(StateOfBookingRequest.WAITING),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), any(Pageable.class))).thenReturn(userBookings);
 
-        Collection<BookingDto> results = bookingService.getAllBookingsByUser(booker.getId(), "WAITING", 0, 10);
+        Collection<BookingDto> results = bookingService.getAllBookingsByUser(booker.getId(), "WAITING", 0, 10, null);
 
         assertEquals(1, results.size());
         assertEquals(BookingStatus.WAITING, results.iterator().next().getStatus());
 
         verify(userRepository).findById(booker.getId());
+        verify(bookingRepository).findByBookerAndState(eq(booker), eq(StateOfBookingRequest.WAITING),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testGetAllBookingsByUserWithCursor() {
+        KeysetCursor cursor = new KeysetCursor(now, 5L);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findByBookerAndState(any(User.class), eq(StateOfBookingRequest.ALL),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(cursor), any(Pageable.class))).thenReturn(List.of(booking));
+
+        Collection<BookingDto> results = bookingService.getAllBookingsByUser(booker.getId(), "ALL", 20, 10,
+                cursor.encode());
+
+        assertEquals(1, results.size());
+        verify(bookingRepository).findByBookerAndState(eq(booker), eq(StateOfBookingRequest.ALL),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(cursor), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testGetAllBookingsByUserWithBrokenCursor() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+
+        assertThrows(BadRequestException.class, () ->
+                bookingService.getAllBookingsByUser(booker.getId(), "ALL", 0, 10, "not-a-cursor"));
     }
 
     @Test
     void testGetBookingsForUserItemsWithWaitingStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.plusHours(1), now.plusHours(2), item, booker, BookingStatus.WAITING));
-        userBookings.add(new Booking(2L, now.plusHours(3), now.plusHours(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, now.plusHours(1), now.plusHours(2), item, booker, BookingStatus.WAITING, 0L));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findByItemOwnerAndState(any(User.class), eq(StateOfBookingRequest.WAITING),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), any(Pageable.class))).thenReturn(userBookings);
 
-        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "WAITING", 0, 10);
+        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "WAITING", 0, 10, null);
 
         assertEquals(1, results.size());
         assertEquals(BookingStatus.WAITING, results.iterator().next().getStatus());
@@ -274,13 +343,14 @@ public class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithPastStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED));
-        userBookings.add(new Booking(2L, now.minusDays(5), now.minusDays(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED, 0L));
+        userBookings.add(new Booking(2L, now.minusDays(5), now.minusDays(4), item, booker, BookingStatus.APPROVED, 0L));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findByItemOwnerAndState(any(User.class), eq(StateOfBookingRequest.PAST),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), any(Pageable.class))).thenReturn(userBookings);
 
-        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "PAST", 0, 10);
+        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "PAST", 0, 10, null);
 
         assertEquals(2, results.size());
     }
@@ -288,13 +358,14 @@ public class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithFutureStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.plusDays(2), now.plusDays(1), item, booker, BookingStatus.APPROVED));
-        userBookings.add(new Booking(2L, now.plusDays(5), now.plusDays(4), item, booker, BookingStatus.APPROVED));
+        userBookings.add(new Booking(1L, now.plusDays(2), now.plusDays(1), item, booker, BookingStatus.APPROVED, 0L));
+        userBookings.add(new Booking(2L, now.plusDays(5), now.plusDays(4), item, booker, BookingStatus.APPROVED, 0L));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findByItemOwnerAndState(any(User.class), eq(StateOfBookingRequest.FUTURE),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), any(Pageable.class))).thenReturn(userBookings);
 
-        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "FUTURE", 0, 10);
+        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "FUTURE", 0, 10, null);
 
         assertEquals(2, results.size());
     }
@@ -302,12 +373,13 @@ public class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithRejectedStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.REJECTED));
+        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.REJECTED, 0L));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(userBookings);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findByItemOwnerAndState(any(User.class), eq(StateOfBookingRequest.REJECTED),
+                any(LocalDateTime.class), any(LocalDateTime.class), isNull(), any(Pageable.class))).thenReturn(userBookings);
 
-        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "REJECTED", 0, 10);
+        Collection<BookingDto> results = bookingService.getBookingsForUserItems(owner.getId(), "REJECTED", 0, 10, null);
 
         assertEquals(1, results.size());
     }
@@ -315,10 +387,10 @@ public class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithIncorrectStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.REJECTED));
+        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.REJECTED, 0L));
 
         assertThrows(BadRequestException.class, () -> bookingService.getBookingsForUserItems(owner.getId(),
-                "INCORRECT", 0, 10));
+                "INCORRECT", 0, 10, null));
     }
 
     @Test
@@ -331,4 +403,22 @@ public class BookingServiceImplTest {
         assertEquals(booking.getBooker().getId(), convertedDto.getBookerId());
         assertEquals(booking.getStatus().toString(), convertedDto.getStatus());
     }
+
+    @Test
+    void testGetOwnerBookingSummary() {
+        Map<StateOfBookingRequest, Long> summary = Map.of(StateOfBookingRequest.ALL, 3L);
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(ownerBookingSummaryIndex.summary(eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(summary);
+
+        assertEquals(summary, bookingService.getOwnerBookingSummary(owner.getId()));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetOwnerBookingSummaryWithWrongUser() {
+        when(userRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.getOwnerBookingSummary(100L));
+    }
 }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntBookingApprovalConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingService bookingService;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        item = itemRepository.save(Item.builder().name("itemName").description("itemDesc").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentApproveAndRejectOfOneBooking() throws Exception {
+        Booking booking = saveWaitingBooking(LocalDateTime.now().plusDays(1));
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+
+        runConcurrently(THREADS * 2, attempt -> {
+            try {
+                bookingService.approveBooking(booking.getId(), owner.getId(), attempt % 2 == 0);
+                succeeded.incrementAndGet();
+            } catch (BookingException e) {
+                conflicted.incrementAndGet();
+            }
+        });
+
+        Booking actual = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(1, succeeded.get());
+        assertEquals(THREADS * 2 - 1, conflicted.get());
+        assertNotEquals(BookingStatus.WAITING, actual.getStatus());
+        assertEquals(1L, actual.getVersion());
+    }
+
+    @Test
+    void testApprovalThroughputOnHotItem() throws Exception {
+        int bookingsCount = 400;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < bookingsCount; i++) {
+            bookingIds.add(saveWaitingBooking(start.plusHours(i)).getId());
+        }
+
+        long startedAt = System.nanoTime();
+        runConcurrently(bookingsCount, attempt ->
+                bookingService.approveBooking(bookingIds.get(attempt), owner.getId(), true));
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        log.info("Подтверждено {} бронирований одной вещи в {} потоков за {} мс ({} подтверждений/с)",
+                bookingsCount, THREADS, elapsedMillis, bookingsCount * 1000L / elapsedMillis);
+
+        assertTrue(bookingRepository.findAllById(bookingIds).stream()
+                .allMatch(booking -> booking.getStatus() == BookingStatus.APPROVED));
+    }
+
+    private Booking saveWaitingBooking(LocalDateTime start) {
+        return bookingRepository.save(Booking.builder().start(start).end(start.plusHours(1)).item(item)
+                .booker(booker).status(BookingStatus.WAITING).build());
+    }
+
+    private void runConcurrently(int attempts, IntConsumerTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                task.run(attempt);
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntConsumerTask {
+        void run(int attempt);
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -16,7 +18,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,7 +64,7 @@ public class IntBookingServiceImplTest {
 
     @Test
     void testGetAllBookingsByUser() {
-        Collection<BookingDto> userBookings = bookingService.getAllBookingsByUser(booker.getId(), "CURRENT", 0, 10);
+        Collection<BookingDto> userBookings = bookingService.getAllBookingsByUser(booker.getId(), "CURRENT", 0, 10, null);
 
         assertNotNull(userBookings);
         assertEquals(2, userBookings.size());
@@ -76,7 +81,7 @@ public class IntBookingServiceImplTest {
 
     @Test
     void testGetAllBookingsForUserItems() {
-        Collection<BookingDto> userBookings = bookingService.getBookingsForUserItems(user.getId(), "CURRENT", 0, 10);
+        Collection<BookingDto> userBookings = bookingService.getBookingsForUserItems(user.getId(), "CURRENT", 0, 10, null);
 
         assertNotNull(userBookings);
         assertEquals(2, userBookings.size());
@@ -90,4 +95,48 @@ public class IntBookingServiceImplTest {
             assertNotNull(dto.getStatus());
         }
     }
+
+    @Test
+    void testCreateBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingShortDto> bookingShortDtos = Arrays.asList(
+                BookingShortDto.builder().itemId(secondItem.getId()).start(start).end(start.plusHours(2)).build(),
+                BookingShortDto.builder().itemId(secondItem.getId()).start(start.plusHours(1)).end(start.plusHours(3)).build(),
+                BookingShortDto.builder().itemId(secondItem.getId()).start(start.plusHours(2)).end(start.plusHours(3)).build(),
+                BookingShortDto.builder().itemId(100500L).start(start).end(start.plusHours(2)).build(),
+                null);
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), bookingShortDtos);
+
+        assertEquals(5, results.size());
+        assertNotNull(results.get(0).getBooking().getId());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getBooking().getId());
+        assertNotNull(results.get(3).getError());
+        assertNull(results.get(4).getBooking());
+        assertNotNull(results.get(4).getError());
+        assertEquals(2, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(secondItem.getId()))
+                .count());
+    }
+
+    @Test
+    void testExpireStaleBookings() {
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking stale = bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                .item(secondItem).booker(booker).status(BookingStatus.WAITING).build());
+        Booking staleApproved = bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                .item(secondItem).booker(booker).status(BookingStatus.APPROVED).build());
+
+        assertEquals(now.minusDays(2), bookingService.findOldestStaleBookingStart(now).orElseThrow());
+        assertEquals(2, bookingService.expireStaleBookings(now, 2));
+        assertEquals(1, bookingService.expireStaleBookings(now, 2));
+        assertEquals(0, bookingService.expireStaleBookings(now, 2));
+
+        assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(stale.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(staleApproved.getId()).orElseThrow().getStatus());
+        assertTrue(bookingService.findOldestStaleBookingStart(now).isEmpty());
+    }
 }
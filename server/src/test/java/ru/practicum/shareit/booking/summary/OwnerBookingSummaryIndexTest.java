@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.StateOfBookingRequest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OwnerBookingSummaryIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private OwnerBookingSummaryIndex summaryIndex;
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private final LocalDateTime liveSince = now.minusMonths(6);
+
+    @Test
+    void testSummaryRollsOverWithTime() {
+        summaryIndex.onBookingEvent(created(1L, now.minusDays(3), now.minusDays(2)));
+        summaryIndex.onBookingEvent(created(2L, now.minusHours(1), now.plusHours(1)));
+        summaryIndex.onBookingEvent(created(3L, now.plusDays(1), now.plusDays(2)));
+
+        Map<StateOfBookingRequest, Long> summary = summaryIndex.summary(1L, now, liveSince);
+        assertEquals(3L, summary.get(StateOfBookingRequest.ALL));
+        assertEquals(1L, summary.get(StateOfBookingRequest.PAST));
+        assertEquals(1L, summary.get(StateOfBookingRequest.CURRENT));
+        assertEquals(1L, summary.get(StateOfBookingRequest.FUTURE));
+        assertEquals(3L, summary.get(StateOfBookingRequest.WAITING));
+
+        Map<StateOfBookingRequest, Long> nextWeek = summaryIndex.summary(1L, now.plusDays(7), liveSince);
+        assertEquals(3L, nextWeek.get(StateOfBookingRequest.PAST));
+        assertEquals(0L, nextWeek.get(StateOfBookingRequest.CURRENT));
+        assertEquals(0L, nextWeek.get(StateOfBookingRequest.FUTURE));
+    }
+
+    @Test
+    void testSummaryFollowsStatusChanges() {
+        summaryIndex.onBookingEvent(created(1L, now.plusDays(1), now.plusDays(2)));
+        summaryIndex.onBookingEvent(BookingEvent.builder().bookingId(1L).itemId(1L).bookerId(2L).ownerId(1L)
+                .start(now.plusDays(1)).end(now.plusDays(2)).previousStatus(BookingStatus.WAITING)
+                .status(BookingStatus.REJECTED).build());
+
+        Map<StateOfBookingRequest, Long> summary = summaryIndex.summary(1L, now, liveSince);
+        assertEquals(0L, summary.get(StateOfBookingRequest.WAITING));
+        assertEquals(1L, summary.get(StateOfBookingRequest.REJECTED));
+        assertEquals(0L, summaryIndex.summary(2L, now, liveSince).get(StateOfBookingRequest.ALL));
+    }
+
+    @Test
+    void testWaitingCountSkipsBookingsEndedBeforeLiveHorizon() {
+        summaryIndex.onBookingEvent(created(1L, liveSince.minusDays(3), liveSince.minusDays(2)));
+        summaryIndex.onBookingEvent(created(2L, liveSince.minusDays(1), liveSince.plusDays(1)));
+        summaryIndex.onBookingEvent(created(3L, now.plusDays(1), now.plusDays(2)));
+
+        Map<StateOfBookingRequest, Long> summary = summaryIndex.summary(1L, now, liveSince);
+        assertEquals(3L, summary.get(StateOfBookingRequest.ALL));
+        assertEquals(2L, summary.get(StateOfBookingRequest.WAITING));
+
+        summaryIndex.onBookingEvent(BookingEvent.builder().bookingId(2L).itemId(1L).bookerId(2L).ownerId(1L)
+                .start(liveSince.minusDays(1)).end(liveSince.plusDays(1)).previousStatus(BookingStatus.WAITING)
+                .status(BookingStatus.APPROVED).build());
+
+        assertEquals(1L, summaryIndex.summary(1L, now, liveSince).get(StateOfBookingRequest.WAITING));
+        assertEquals(2L, summaryIndex.summary(1L, now, liveSince.minusDays(5)).get(StateOfBookingRequest.WAITING));
+        assertEquals(2L, summaryIndex.summary(1L, now, null).get(StateOfBookingRequest.WAITING));
+    }
+
+    private BookingEvent created(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        return BookingEvent.builder().bookingId(bookingId).itemId(1L).bookerId(2L).ownerId(1L)
+                .start(start).end(end).status(BookingStatus.WAITING).build();
+    }
+}
@@ -5,14 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.validation.annotation.Validated;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.stream.ItemCatalogueWriter;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,10 +31,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
+@Import(ItemCatalogueWriter.class)
 @Validated
 public class ItemControllerTest {
     @Autowired
@@ -60,6 +71,23 @@ public class ItemControllerTest {
         verify(itemService).createItem(anyLong(), any(ItemDto.class));
     }
 
+    @Test
+    void streamItems() throws Exception {
+        when(itemService.findAllAfter(0L, 500)).thenReturn(List.of(itemDto));
+
+        MvcResult result = mockMvc.perform(get("/items/stream")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(itemDto) + "\n"));
+
+        verify(itemService).findAllAfter(0L, 500);
+    }
+
     @Test
     void updateItem() throws Exception {
         itemDto.setDescription("Updated Item Description");
@@ -98,25 +126,57 @@ public class ItemControllerTest {
 
     @Test
     void getUserItems() throws Exception {
-        when(itemService.getUserItems(anyLong(), anyInt(), anyInt()))
+        when(itemService.getUserItems(anyLong(), anyInt(), anyInt(), isNull()))
                 .thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName())))
                 .andExpect(jsonPath("$[0].description", is(itemDto.getDescription())));
 
-        verify(itemService).getUserItems(anyLong(), anyInt(), anyInt());
+        verify(itemService).getUserItems(anyLong(), anyInt(), anyInt(), isNull());
+    }
+
+    @Test
+    void getUserItemsReturnsNextCursorForFullPage() throws Exception {
+        LocalDateTime nextStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        ItemDto bookedItem = ItemDto.builder().id(2L).name("booked").description("booked").available(true)
+                .nextBooking(BookingShortDto.builder().id(5L).start(nextStart).end(nextStart.plusDays(1)).build())
+                .build();
+        String cursor = new KeysetCursor(LocalDateTime.of(2030, 2, 1, 12, 0), 1L).encode();
+        when(itemService.getUserItems(1L, 0, 1, cursor)).thenReturn(List.of(bookedItem));
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(nextStart, 2L).encode()))
+                .andExpect(jsonPath("$[0].id", is(2)));
+    }
+
+    @Test
+    void suggestItems() throws Exception {
+        when(itemService.suggestItems("щет", 5)).thenReturn(List.of(new ItemSuggestionDto(2L, "Щетка для обуви")));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "щет")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].name", is("Щетка для обуви")));
     }
 
     @Test
     void searchItem() throws Exception {
         ItemDto dtoForSearch = ItemDto.builder().id(2L).name("Щетка для обуви").description("Хорошо чистит").available(true)
                         .build();
-        when(itemService.searchItem(anyString(), anyInt(), anyInt()))
+        when(itemService.searchItem(anyString(), isNull(), isNull(), anyInt(), anyInt(), isNull()))
                 .thenReturn(List.of(dtoForSearch));
 
         mockMvc.perform(get("/items/search")
@@ -128,7 +188,32 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description", is(dtoForSearch.getDescription())))
                 .andExpect(jsonPath("$[0].available", is(dtoForSearch.getAvailable())));
 
-        verify(itemService).searchItem(anyString(), anyInt(), anyInt());
+        verify(itemService).searchItem(anyString(), isNull(), isNull(), anyInt(), anyInt(), isNull());
+    }
+
+    @Test
+    void getItemCommentsReturnsNextCursorForFullPage() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        CommentShortDto comment = CommentShortDto.builder().id(3L).text("text").itemId(1L).authorName("user")
+                .created(created).build();
+        when(commentService.getItemComments(1L, null, 1)).thenReturn(List.of(comment));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(created, 3L).encode()))
+                .andExpect(jsonPath("$[0].authorName", is("user")));
+    }
+
+    @Test
+    void getItemCommentsLastPage() throws Exception {
+        when(commentService.getItemComments(1L, "cursor", 20)).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/1/comments")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
     }
 
     @Test
@@ -154,4 +239,23 @@ public class ItemControllerTest {
 
         verify(commentService).addNewComment(any(CommentShortDto.class), anyLong(), anyLong());
     }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemService.getItemAvailability(1L, from, to))
+                .thenReturn(List.of(new AvailabilityWindowDto(from, from.plusHours(2))));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-01T12:00:00")));
+
+        verify(itemService).getItemAvailability(1L, from, to);
+    }
 }
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -13,7 +15,9 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -49,16 +53,45 @@ public class JpaCommentRepositoryTest {
     }
 
     @Test
-    void findByItemOrderByIdAsc() {
-        List<Comment> actualComments = commentRepository.findByItemOrderByIdAsc(item);
+    void findRecentByItemIdWithKeyset() {
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Comment older = commentRepository.save(Comment.builder().text("older").created(created.minusDays(1))
+                .item(item).author(commentator).build());
+        Comment newer = commentRepository.save(Comment.builder().text("newer").created(created.plusDays(1))
+                .item(item).author(commentator).build());
 
-        assertFalse(actualComments.isEmpty());
-        assertEquals(1, actualComments.size());
+        List<CommentView> firstPage = commentRepository.findRecentByItemId(item.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(newer.getId(), comment.getId()), ids(firstPage));
+        assertEquals("user2Name", firstPage.get(0).getAuthorName());
+        assertEquals(item.getId(), firstPage.get(0).getItemId());
 
-        Comment actualComment = actualComments.get(0);
-        assertEquals("test comment", actualComment.getText());
-        assertEquals("Отвертка", actualComment.getItem().getName());
-        assertEquals("user2Name", actualComment.getAuthor().getName());
-        assertNotNull(actualComment.getCreated());
+        CommentView last = firstPage.get(1);
+        List<CommentView> secondPage = commentRepository.findRecentByItemIdBefore(item.getId(), last.getCreated(),
+                last.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(older.getId()), ids(secondPage));
+    }
+
+    @Test
+    void findRecentByItemIdsCapsCommentsPerItem() {
+        Item secondItem = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true)
+                .owner(owner).build());
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 3; i++) {
+            commentRepository.save(Comment.builder().text("comment " + i).created(created.plusMinutes(i))
+                    .item(secondItem).author(commentator).build());
+        }
+
+        List<CommentView> recent = commentRepository.findRecentByItemIds(List.of(item.getId(), secondItem.getId()), 2);
+
+        assertEquals(List.of("test comment"), recent.stream().filter(c -> c.getItemId().equals(item.getId()))
+                .map(CommentView::getText).collect(Collectors.toList()));
+        assertEquals(List.of("comment 3", "comment 2"), recent.stream()
+                .filter(c -> c.getItemId().equals(secondItem.getId()))
+                .map(CommentView::getText).collect(Collectors.toList()));
+        assertEquals("user2Name", recent.get(0).getAuthorName());
+    }
+
+    private static List<Long> ids(List<CommentView> comments) {
+        return comments.stream().map(CommentView::getId).collect(Collectors.toList());
     }
 }
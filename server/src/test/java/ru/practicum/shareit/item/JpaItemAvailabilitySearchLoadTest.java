@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.item.JpaItemAvailabilitySearchLoadTest$LastItemStatement")
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.load-tests", matches = "true")
+public class JpaItemAvailabilitySearchLoadTest {
+    private static final int ITEMS = Integer.getInteger("shareit.load-tests.items", 100_000);
+    private static final int BOOKINGS = Integer.getInteger("shareit.load-tests.bookings", 1_000_000);
+    private static final long OWNER_ID = 1_000_001L;
+    private static final long BOOKER_ID = 1_000_002L;
+    private static final long FIRST_ITEM_ID = 1_000_001L;
+    private static final int PAGE_SIZE = 20;
+    private static final String TEXT = "drill";
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestEntityManager entityManager;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+    @BeforeEach
+    void seed() {
+        long started = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'owner', 'owner@load.test'), " +
+                "(?, 'booker', 'booker@load.test')", OWNER_ID, BOOKER_ID);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "SELECT ? + X, CASE WHEN MOD(X, 10) = 0 THEN 'drill ' ELSE 'item ' END || X, " +
+                "'description' || X, TRUE, ? FROM SYSTEM_RANGE(0, ?)",
+                FIRST_ITEM_ID, OWNER_ID, ITEMS - 1);
+        String now = "TIMESTAMP '" + Timestamp.valueOf(this.now) + "'";
+        jdbcTemplate.update(String.format("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT 10000000 + X, DATEADD(DAY, X / %1$d, %2$s), DATEADD(HOUR, 20, DATEADD(DAY, X / %1$d, %2$s)), " +
+                "%3$d + MOD(X, %1$d), %4$d, " +
+                "CASE MOD(X, 7) WHEN 0 THEN 'REJECTED' WHEN 1 THEN 'WAITING' ELSE 'APPROVED' END " +
+                "FROM SYSTEM_RANGE(0, %5$d)", ITEMS, now, FIRST_ITEM_ID, BOOKER_ID, BOOKINGS - 1));
+        log.info("Загружено {} вещей и {} бронирований за {} мс", ITEMS, BOOKINGS,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void benchmarkAvailabilitySearchOnLargeDataset() {
+        int bookedDays = BOOKINGS / ITEMS;
+        report("окно внутри бронирований", now.plusDays(bookedDays / 2).plusHours(1),
+                now.plusDays(bookedDays / 2).plusHours(2));
+        report("окно между бронированиями", now.plusDays(bookedDays / 2).plusHours(21),
+                now.plusDays(bookedDays / 2).plusHours(23));
+    }
+
+    private void report(String window, LocalDateTime start, LocalDateTime end) {
+        entityManager.clear();
+        itemRepository.searchAvailable(TEXT, start, end, PageRequest.of(0, PAGE_SIZE));
+        entityManager.clear();
+        long started = System.nanoTime();
+        List<Item> items = itemRepository.searchAvailable(TEXT, start, end, PageRequest.of(0, PAGE_SIZE));
+        long micros = (System.nanoTime() - started) / 1_000;
+
+        assertEquals(PAGE_SIZE, items.size(), window);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + LastItemStatement.sql, String.class,
+                TEXT, TEXT, Timestamp.valueOf(end), Timestamp.valueOf(start), PAGE_SIZE);
+        log.info("{}: {} вещей на странице, прочитано строк {}, {} мкс\n{}",
+                window, items.size(), scanCount(plan), micros, plan);
+    }
+
+    private static long scanCount(String plan) {
+        long rows = 0;
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        while (matcher.find()) {
+            rows += Long.parseLong(matcher.group(1));
+        }
+        return rows;
+    }
+
+    public static class LastItemStatement implements StatementInspector {
+        private static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("from items")) {
+                LastItemStatement.sql = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -6,14 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,6 +32,8 @@ public class JpaItemRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRequestRepository requestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
     private final User owner = User.builder().name("userName").email("user@mail.ru").build();
     private final Item item = Item.builder().name("Отвертка").description("Аккумуляторная отвертка").available(true)
             .owner(owner).build();
@@ -37,6 +46,7 @@ public class JpaItemRepositoryTest {
 
     @AfterEach
     void deleteData() {
+        bookingRepository.deleteAll();
         requestRepository.deleteAll();
         itemRepository.deleteAll();
         userRepository.deleteAll();
@@ -58,22 +68,6 @@ public class JpaItemRepositoryTest {
         assertEquals("user@mail.ru", actualItem.getOwner().getEmail());
     }
 
-    @Test
-    void findByOwner() {
-        List<Item> actualItems = itemRepository.findByOwner(owner, PageRequest.of(0, 10));
-
-        assertFalse(actualItems.isEmpty());
-        assertEquals(1, actualItems.size());
-
-        Item actualItem = actualItems.get(0);
-        assertEquals("Отвертка", actualItem.getName());
-        assertEquals("Аккумуляторная отвертка", actualItem.getDescription());
-        assertTrue(actualItem.getAvailable());
-        assertNotNull(actualItem.getOwner());
-        assertEquals("userName", actualItem.getOwner().getName());
-        assertEquals("user@mail.ru", actualItem.getOwner().getEmail());
-    }
-
     @Test
     void findAllByRequestIdIn() {
         User requestor = User.builder().name("requestor").email("req@mail.ru").build();
@@ -100,4 +94,53 @@ public class JpaItemRepositoryTest {
         assertEquals("user@mail.ru", actualItem.getOwner().getEmail());
         assertEquals(request.getId(), actualItem.getRequestId());
     }
+
+    @Test
+    void searchAvailable() {
+        User booker = userRepository.save(User.builder().name("bookerName").email("booker@mail.ru").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRepository.save(Booking.builder().start(start).end(start.plusDays(2)).item(item).booker(booker)
+                .status(BookingStatus.APPROVED).build());
+
+        assertTrue(itemRepository.searchAvailable("отвертка", start.plusDays(1), start.plusDays(3),
+                PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, itemRepository.searchAvailable("отвертка", start.plusDays(3), start.plusDays(4),
+                PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void findByOwnerOrderByNextBooking() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User booker = userRepository.save(User.builder().name("bookerName").email("booker@mail.ru").build());
+        Item soon = saveBookedItem("Пила", booker, now.plusDays(1), BookingStatus.WAITING);
+        Item later = saveBookedItem("Дрель", booker, now.plusDays(3), BookingStatus.APPROVED);
+        Item rejected = saveBookedItem("Молоток", booker, now.plusDays(2), BookingStatus.REJECTED);
+        Item sameStart = saveBookedItem("Рубанок", booker, now.plusDays(3), BookingStatus.WAITING);
+        bookingRepository.save(Booking.builder().start(now.minusDays(5)).end(now.minusDays(4)).item(later)
+                .booker(booker).status(BookingStatus.APPROVED).build());
+
+        List<Item> firstPage = itemRepository.findByOwnerOrderByNextBooking(owner, now, null, PageRequest.of(0, 2));
+        List<Item> secondPage = itemRepository.findByOwnerOrderByNextBooking(owner, now,
+                new KeysetCursor(now.plusDays(3), sameStart.getId()), PageRequest.of(0, 2));
+        List<Item> lastPage = itemRepository.findByOwnerOrderByNextBooking(owner, now,
+                new KeysetCursor(null, item.getId()), PageRequest.of(0, 2));
+
+        assertEquals(List.of(later.getId(), sameStart.getId()), ids(firstPage));
+        assertEquals(List.of(soon.getId(), item.getId()), ids(secondPage));
+        assertEquals(List.of(rejected.getId()), ids(lastPage));
+        assertEquals(ids(firstPage.subList(1, 2)), ids(itemRepository.findByOwnerOrderByNextBooking(owner, now, null,
+                PageRequest.of(1, 1))));
+    }
+
+    private Item saveBookedItem(String name, User booker, LocalDateTime start, BookingStatus status) {
+        Item bookedItem = itemRepository.save(Item.builder().name(name).description(name).available(true)
+                .owner(owner).build());
+        bookingRepository.save(Booking.builder().start(start).end(start.plusHours(5)).item(bookedItem).booker(booker)
+                .status(status).build());
+        return bookedItem;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookerStart;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentEligibilityTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testRebuildLoadsEarliestStarts() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        ItemBookerStart start = itemBookerStart(1L, 2L, NOW.minusDays(1));
+        when(bookingRepository.findEarliestStarts()).thenReturn(List.of(start));
+
+        eligibility.rebuild();
+
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+        verify(bookingRepository, never()).findEarliestStart(anyLong(), anyLong());
+    }
+
+    @Test
+    void testNegativeAnswersAreCheckedInRepository() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        ItemBookerStart start = itemBookerStart(1L, 2L, NOW.minusDays(1));
+        when(bookingRepository.findEarliestStarts()).thenReturn(List.of(start));
+        eligibility.rebuild();
+        when(bookingRepository.findEarliestStart(1L, 2L)).thenReturn(Optional.of(NOW.minusDays(1)));
+        when(bookingRepository.findEarliestStart(1L, 3L)).thenReturn(Optional.empty());
+
+        assertFalse(eligibility.canComment(1L, 2L, NOW.minusDays(2)));
+        assertFalse(eligibility.canComment(1L, 3L, NOW));
+        verify(bookingRepository).findEarliestStart(1L, 2L);
+        verify(bookingRepository).findEarliestStart(1L, 3L);
+    }
+
+    @Test
+    void testBookingWithoutEventIsFoundInRepositoryAndCached() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        when(bookingRepository.findEarliestStart(1L, 2L)).thenReturn(Optional.of(NOW.minusDays(1)));
+
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+        verify(bookingRepository, times(1)).findEarliestStart(1L, 2L);
+    }
+
+    @Test
+    void testCreatedBookingKeepsEarliestStart() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+
+        eligibility.onBookingEvent(event(10L, NOW.plusDays(2), null, BookingStatus.WAITING));
+        eligibility.onBookingEvent(event(11L, NOW.minusDays(1), null, BookingStatus.WAITING));
+        eligibility.onBookingEvent(event(12L, NOW.plusDays(5), null, BookingStatus.WAITING));
+
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testRejectingLaterBookingKeepsEligibility() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), null, BookingStatus.WAITING));
+        eligibility.onBookingEvent(event(11L, NOW.plusDays(1), null, BookingStatus.WAITING));
+
+        eligibility.onBookingEvent(event(11L, NOW.plusDays(1), BookingStatus.WAITING, BookingStatus.REJECTED));
+
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testRejectingEarliestBookingReloadsOnce() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), null, BookingStatus.WAITING));
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), BookingStatus.WAITING, BookingStatus.REJECTED));
+        when(bookingRepository.findEarliestStart(1L, 2L)).thenReturn(Optional.of(NOW.plusDays(3)));
+
+        assertFalse(eligibility.canComment(1L, 2L, NOW));
+        assertTrue(eligibility.canComment(1L, 2L, NOW.plusDays(3)));
+        verify(bookingRepository, times(1)).findEarliestStart(1L, 2L);
+    }
+
+    @Test
+    void testRejectingOnlyBookingRevokesEligibility() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), null, BookingStatus.WAITING));
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), BookingStatus.WAITING, BookingStatus.REJECTED));
+        when(bookingRepository.findEarliestStart(1L, 2L)).thenReturn(Optional.empty());
+
+        assertFalse(eligibility.canComment(1L, 2L, NOW));
+        assertFalse(eligibility.canComment(1L, 2L, NOW));
+        verify(bookingRepository, times(2)).findEarliestStart(1L, 2L);
+    }
+
+    @Test
+    void testExpiredBookingStaysEligible() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), null, BookingStatus.WAITING));
+
+        eligibility.onBookingEvent(event(10L, NOW.minusDays(1), BookingStatus.WAITING, BookingStatus.EXPIRED));
+
+        assertTrue(eligibility.canComment(1L, 2L, NOW));
+    }
+
+    @Test
+    void testIdsOutsidePackedRangeFallBackToRepository() {
+        CommentEligibility eligibility = new CommentEligibility(bookingRepository);
+        long largeId = 1L << 40;
+        when(bookingRepository.findEarliestStart(largeId, 2L)).thenReturn(Optional.of(NOW.minusDays(1)));
+
+        assertTrue(eligibility.canComment(largeId, 2L, NOW));
+    }
+
+    private static BookingEvent event(Long bookingId, LocalDateTime start, BookingStatus previousStatus,
+                                      BookingStatus status) {
+        return BookingEvent.builder().bookingId(bookingId).itemId(1L).bookerId(2L).ownerId(3L)
+                .start(start).end(start.plusHours(2)).previousStatus(previousStatus).status(status).build();
+    }
+
+    private static ItemBookerStart itemBookerStart(Long itemId, Long bookerId, LocalDateTime start) {
+        ItemBookerStart itemBookerStart = mock(ItemBookerStart.class);
+        when(itemBookerStart.getItemId()).thenReturn(itemId);
+        when(itemBookerStart.getBookerId()).thenReturn(bookerId);
+        when(itemBookerStart.getStart()).thenReturn(start);
+        return itemBookerStart;
+    }
+}
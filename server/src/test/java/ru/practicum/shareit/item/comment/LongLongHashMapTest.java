@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        map.put(1L << 32 | 7, 100);
+        map.put(2L << 32 | 7, 200);
+        map.put(1L << 32 | 7, 50);
+
+        assertEquals(2, map.size());
+        assertEquals(50, map.get(1L << 32 | 7, -1));
+        assertEquals(-1, map.get(3L << 32 | 7, -1));
+
+        map.remove(1L << 32 | 7);
+
+        assertEquals(1, map.size());
+        assertEquals(-1, map.get(1L << 32 | 7, -1));
+        assertEquals(200, map.get(2L << 32 | 7, -1));
+    }
+
+    @Test
+    void testZeroKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongLongHashMap(4).put(0L, 1L));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = (long) (random.nextInt(500) + 1) << 32 | (random.nextInt(50) + 1);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key, -1)));
+    }
+}
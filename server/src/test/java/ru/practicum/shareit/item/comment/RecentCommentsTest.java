@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.model.CommentView;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RecentCommentsTest {
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Test
+    void testForItemReturnsNewestCommentsInChronologicalOrder() {
+        RecentComments recentComments = new RecentComments(commentRepository, 2);
+        List<CommentView> newestFirst = List.of(comment(3L, 1L), comment(2L, 1L));
+        when(commentRepository.findRecentByItemId(1L, PageRequest.of(0, 2))).thenReturn(newestFirst);
+
+        assertEquals(List.of(2L, 3L), ids(recentComments.forItem(1L)));
+    }
+
+    @Test
+    void testForItemsGroupsByItem() {
+        RecentComments recentComments = new RecentComments(commentRepository, 2);
+        List<CommentView> newestFirst = List.of(comment(5L, 1L), comment(4L, 1L), comment(6L, 2L));
+        when(commentRepository.findRecentByItemIds(List.of(1L, 2L), 2)).thenReturn(newestFirst);
+
+        Map<Long, List<CommentShortDto>> commentsByItem = recentComments.forItems(List.of(1L, 2L));
+
+        assertEquals(List.of(4L, 5L), ids(commentsByItem.get(1L)));
+        assertEquals(List.of(6L), ids(commentsByItem.get(2L)));
+    }
+
+    private static CommentView comment(Long id, Long itemId) {
+        CommentView comment = mock(CommentView.class);
+        when(comment.getId()).thenReturn(id);
+        lenient().when(comment.getItemId()).thenReturn(itemId);
+        return comment;
+    }
+
+    private static List<Long> ids(List<CommentShortDto> comments) {
+        return comments.stream().map(CommentShortDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingCount;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.CommentEvent;
+import ru.practicum.shareit.item.model.ItemCommentCount;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemPopularityTableTest {
+    private static final long HALF_LIFE_SECONDS = Duration.ofDays(7).toSeconds();
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    private ItemPopularityTable table() {
+        return new ItemPopularityTable(bookingRepository, commentRepository, Duration.ofDays(7));
+    }
+
+    @Test
+    void testBookingAndCommentEventsUpdatePopularity() {
+        ItemPopularityTable table = table();
+        LocalDateTime now = LocalDateTime.now();
+
+        table.onBookingEvent(booking(1L, null, BookingStatus.WAITING));
+        table.onBookingEvent(booking(1L, BookingStatus.WAITING, BookingStatus.APPROVED));
+        table.onBookingEvent(booking(1L, null, BookingStatus.WAITING));
+        table.onBookingEvent(booking(1L, BookingStatus.WAITING, BookingStatus.REJECTED));
+        table.onCommentEvent(CommentEvent.builder().itemId(1L).build());
+
+        assertEquals(score(1, 1, 2), table.score(1L, now), 0.001);
+        assertEquals(0, table.score(2L, now));
+    }
+
+    @Test
+    void testScoreGrowsWithSignalAndStaysBelowOne() {
+        ItemPopularityTable table = table();
+        LocalDateTime now = LocalDateTime.now();
+        table.onBookingEvent(booking(1L, null, BookingStatus.APPROVED));
+        for (int i = 0; i < 50; i++) {
+            table.onBookingEvent(booking(2L, null, BookingStatus.APPROVED));
+        }
+
+        assertEquals(0, table.score(3L, now));
+        assertTrue(table.score(1L, now) > 0);
+        assertTrue(table.score(2L, now) > table.score(1L, now));
+        assertTrue(table.score(2L, now) < 1);
+    }
+
+    @Test
+    void testVelocityDecays() {
+        ItemPopularity popularity = ItemPopularity.NONE.withBooking(0, HALF_LIFE_SECONDS)
+                .withBooking(0, HALF_LIFE_SECONDS);
+
+        assertEquals(2, popularity.velocityAt(0, HALF_LIFE_SECONDS), 0.001);
+        assertEquals(1, popularity.velocityAt(HALF_LIFE_SECONDS, HALF_LIFE_SECONDS), 0.001);
+        assertEquals(1.5, popularity.withBooking(HALF_LIFE_SECONDS * 2, HALF_LIFE_SECONDS).getVelocity(), 0.001);
+    }
+
+    @Test
+    void testRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingCount bookings = mock(ItemBookingCount.class);
+        when(bookings.getItemId()).thenReturn(1L);
+        when(bookings.getBookings()).thenReturn(3L);
+        ItemCommentCount comments = mock(ItemCommentCount.class);
+        when(comments.getItemId()).thenReturn(1L);
+        when(comments.getComments()).thenReturn(2L);
+        BookingInterval recent = mock(BookingInterval.class);
+        when(recent.getItemId()).thenReturn(2L);
+        when(recent.getStart()).thenReturn(now.plusDays(1));
+        when(bookingRepository.findApprovedBookingCounts()).thenReturn(List.of(bookings));
+        when(commentRepository.findCommentCounts()).thenReturn(List.of(comments));
+        when(bookingRepository.findActiveIntervalsStartedAfter(any(LocalDateTime.class))).thenReturn(List.of(recent));
+        ItemPopularityTable table = table();
+
+        table.rebuild();
+
+        assertEquals(score(3, 2, 0), table.score(1L, now), 0.001);
+        assertEquals(score(0, 0, 1), table.score(2L, now), 0.001);
+    }
+
+    private static double score(long approvedBookings, long comments, double velocity) {
+        double raw = Math.log1p(approvedBookings) + Math.log1p(comments) / 2 + Math.log1p(velocity);
+        return raw / (1 + raw);
+    }
+
+    private static BookingEvent booking(Long itemId, BookingStatus previousStatus, BookingStatus status) {
+        return BookingEvent.builder().itemId(itemId).previousStatus(previousStatus).status(status).build();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FullTextItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private SqlItemSearchEngine sqlEngine;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private final Item item = Item.builder().id(1L).name("Дрель").description("Ударная").available(true).build();
+
+    @Test
+    void testSearchOnPostgreSql() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(itemRepository.searchFullText("дрель", PageRequest.of(0, 10))).thenReturn(List.of(item));
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(itemRepository, sqlEngine, jdbcTemplate);
+
+        assertEquals(List.of(item), engine.search("дрель", PageRequest.of(0, 10)));
+        verifyNoInteractions(sqlEngine);
+    }
+
+    @Test
+    void testSearchFallsBackToLikeOnOtherDatabases() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(sqlEngine.search("дрель", PageRequest.of(0, 10))).thenReturn(List.of(item));
+        FullTextItemSearchEngine engine = new FullTextItemSearchEngine(itemRepository, sqlEngine, jdbcTemplate);
+
+        assertEquals(List.of(item), engine.search("дрель", PageRequest.of(0, 10)));
+        verify(itemRepository, never()).searchFullText(anyString(), any());
+    }
+}
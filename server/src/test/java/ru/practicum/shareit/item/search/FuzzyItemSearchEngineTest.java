@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FuzzyItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private final Item item = Item.builder().id(1L).name("Дрель").description("Ударная").available(true).build();
+
+    @Test
+    void testSearchOnPostgreSql() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(itemRepository.searchSimilar("дрльь", 0.4, PageRequest.of(0, 10))).thenReturn(List.of(item));
+        FuzzyItemSearchEngine engine = new FuzzyItemSearchEngine(itemRepository, jdbcTemplate, 0.4);
+
+        engine.rebuild();
+
+        assertEquals(List.of(item), engine.search("дрльь", PageRequest.of(0, 10)));
+        verify(itemRepository, never()).findSearchableItems();
+    }
+
+    @Test
+    void testSearchInProcessOnOtherDatabases() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+        FuzzyItemSearchEngine engine = new FuzzyItemSearchEngine(itemRepository, jdbcTemplate, 0.3);
+
+        engine.onItemEvent(ItemEvent.builder().itemId(1L).name("Дрель").description("Ударная").available(true).build());
+
+        assertEquals(List.of(item), engine.search("дрел", PageRequest.of(0, 10)));
+        verify(itemRepository, never()).searchSimilar(anyString(), anyDouble(), any());
+
+        engine.onItemEvent(ItemEvent.builder().itemId(1L).deleted(true).build());
+        assertTrue(engine.search("дрел", PageRequest.of(0, 10)).isEmpty());
+    }
+}
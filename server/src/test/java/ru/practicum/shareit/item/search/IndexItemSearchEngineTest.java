@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchableItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndexItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private IndexItemSearchEngine searchEngine;
+
+    @Test
+    void testSearchIgnoresCaseAndMatchesPrefixes() {
+        index(1L, "Щётка для обуви", "Хорошо чистит");
+        index(2L, "Drill", "Cordless DRILL with battery");
+        index(3L, "Отвёртка", "Крестовая");
+        stubItems(1L, 2L, 3L);
+
+        assertEquals(List.of(1L), ids(searchEngine.search("щетка", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), ids(searchEngine.search("ЧИСТ", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("cordless dri", PageRequest.of(0, 10))));
+        assertEquals(List.of(), ids(searchEngine.search("cordless щетка", PageRequest.of(0, 10))));
+        assertEquals(List.of(), ids(searchEngine.search("  ", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchOrdersByNameAndPaginates() {
+        index(1L, "Пила ручная", "Инструмент");
+        index(2L, "Дрель", "Инструмент");
+        index(3L, "Молоток", "Инструмент");
+        stubItems(1L, 2L, 3L);
+
+        assertEquals(List.of(2L, 3L), ids(searchEngine.search("инструмент", PageRequest.of(0, 2))));
+        assertEquals(List.of(1L), ids(searchEngine.search("инструмент", PageRequest.of(1, 2))));
+        assertEquals(List.of(), ids(searchEngine.search("инструмент", PageRequest.of(2, 2))));
+    }
+
+    @Test
+    void testOnItemEventUpdatesIndex() {
+        index(1L, "Дрель", "Ударная");
+        searchEngine.onItemEvent(ItemEvent.builder().itemId(1L).name("Перфоратор").description("Ударный")
+                .available(true).build());
+        stubItems(1L);
+
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(searchEngine.search("перфоратор", PageRequest.of(0, 10))));
+
+        searchEngine.onItemEvent(ItemEvent.builder().itemId(1L).name("Перфоратор").description("Ударный")
+                .available(false).build());
+        assertTrue(searchEngine.search("перфоратор", PageRequest.of(0, 10)).isEmpty());
+
+        index(1L, "Перфоратор", "Ударный");
+        searchEngine.onItemEvent(ItemEvent.builder().itemId(1L).deleted(true).build());
+        assertTrue(searchEngine.search("перфоратор", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testRebuild() {
+        index(5L, "Старая вещь", "Будет удалена при перестроении");
+        when(itemRepository.findSearchableItems()).thenReturn(List.of(searchable(1L, "Палатка", "Четырёхместная")));
+        stubItems(1L);
+
+        searchEngine.rebuild();
+
+        assertEquals(List.of(1L), ids(searchEngine.search("четырехместная", PageRequest.of(0, 10))));
+        assertTrue(searchEngine.search("старая", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private void index(Long itemId, String name, String description) {
+        searchEngine.onItemEvent(ItemEvent.builder().itemId(itemId).name(name).description(description)
+                .available(true).build());
+    }
+
+    private void stubItems(Long... itemIds) {
+        lenient().when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> requested = invocation.getArgument(0);
+            List<Long> known = List.of(itemIds);
+            List<Item> items = new ArrayList<>();
+            requested.forEach(id -> {
+                if (known.contains(id)) {
+                    items.add(Item.builder().id(id).build());
+                }
+            });
+            return items;
+        });
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static SearchableItem searchable(Long id, String name, String description) {
+        return new SearchableItem() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
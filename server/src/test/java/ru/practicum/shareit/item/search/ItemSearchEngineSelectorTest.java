@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ItemSearchEngineSelectorTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SqlItemSearchEngine sqlEngine = new SqlItemSearchEngine(itemRepository);
+    private final IndexItemSearchEngine indexEngine = new IndexItemSearchEngine(itemRepository);
+
+    @Test
+    void testSelectDefaultAndRequestedEngine() {
+        ItemSearchEngineSelector selector = new ItemSearchEngineSelector(List.of(sqlEngine, indexEngine),
+                SearchEngineType.SQL);
+
+        assertSame(sqlEngine, selector.select(null));
+        assertSame(indexEngine, selector.select("index"));
+        assertSame(sqlEngine, selector.select("SQL"));
+    }
+
+    @Test
+    void testSelectUnknownOrMissingEngine() {
+        ItemSearchEngineSelector selector = new ItemSearchEngineSelector(List.of(sqlEngine), SearchEngineType.SQL);
+
+        assertThrows(BadRequestException.class, () -> selector.select("lucene"));
+        assertThrows(BadRequestException.class, () -> selector.select("index"));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSuggestionIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    private ItemSuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestionIndex = new ItemSuggestionIndex(itemRepository, bookingRepository, 10);
+        suggestionIndex.onItemEvent(ItemEvent.builder().itemId(1L).name("Дрель").available(true).build());
+        suggestionIndex.onItemEvent(ItemEvent.builder().itemId(2L).name("Диван").available(true).build());
+    }
+
+    @Test
+    void testApprovedBookingsRaiseItem() {
+        suggestionIndex.onBookingEvent(booking(2L, BookingStatus.WAITING, BookingStatus.APPROVED));
+
+        assertEquals(List.of(new ItemSuggestionDto(2L, "Диван"), new ItemSuggestionDto(1L, "Дрель")),
+                suggestionIndex.suggest("д", 10));
+
+        suggestionIndex.onBookingEvent(booking(2L, BookingStatus.APPROVED, BookingStatus.CANCELED));
+        assertEquals(1L, suggestionIndex.suggest("д", 10).get(0).getId());
+    }
+
+    @Test
+    void testItemEventsUpdateSuggestions() {
+        suggestionIndex.onItemEvent(ItemEvent.builder().itemId(1L).name("Дрель").available(false).build());
+        assertEquals(List.of(new ItemSuggestionDto(2L, "Диван")), suggestionIndex.suggest("д", 10));
+
+        suggestionIndex.onItemEvent(ItemEvent.builder().itemId(2L).deleted(true).build());
+        assertTrue(suggestionIndex.suggest("д", 10).isEmpty());
+    }
+
+    private static BookingEvent booking(Long itemId, BookingStatus previousStatus, BookingStatus status) {
+        return BookingEvent.builder().itemId(itemId).previousStatus(previousStatus).status(status).build();
+    }
+}
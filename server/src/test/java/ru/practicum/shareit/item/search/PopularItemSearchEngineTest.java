@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.ItemEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityTable;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PopularItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemPopularityTable popularityTable;
+    private IndexItemSearchEngine indexEngine;
+    private PopularItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        indexEngine = new IndexItemSearchEngine(itemRepository);
+        index(indexEngine, 1L, "Дрель", "Ударная");
+        index(indexEngine, 2L, "Перфоратор", "Работает как дрель");
+        index(indexEngine, 3L, "Дрель-шуруповерт", "Аккумуляторная");
+        searchEngine = new PopularItemSearchEngine(indexEngine, popularityTable, 0.5);
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> itemIds = invocation.getArgument(0);
+            List<Item> items = new ArrayList<>();
+            itemIds.forEach(id -> items.add(Item.builder().id(id).build()));
+            return items;
+        });
+    }
+
+    @Test
+    void testNameMatchesRankAboveDescriptionMatches() {
+        when(popularityTable.score(anyLong(), any(LocalDateTime.class))).thenReturn(0.0);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("дрель", PageRequest.of(1, 2))));
+    }
+
+    @Test
+    void testPopularityLiftsItems() {
+        when(popularityTable.score(anyLong(), any(LocalDateTime.class))).thenReturn(0.0);
+        when(popularityTable.score(eq(2L), any(LocalDateTime.class))).thenReturn(0.9);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testBookingEventsLiftItemsThroughPopularityTable() {
+        ItemPopularityTable table = new ItemPopularityTable(mock(BookingRepository.class),
+                mock(CommentRepository.class), Duration.ofDays(7));
+        PopularItemSearchEngine engine = new PopularItemSearchEngine(indexEngine, table, 0.5);
+        for (int i = 0; i < 50; i++) {
+            table.onBookingEvent(BookingEvent.builder().itemId(2L).status(BookingStatus.APPROVED).build());
+        }
+
+        assertEquals(List.of(2L, 1L, 3L), ids(engine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    private static void index(IndexItemSearchEngine indexEngine, Long itemId, String name, String description) {
+        indexEngine.onItemEvent(ItemEvent.builder().itemId(itemId).name(name).description(description)
+                .available(true).build());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
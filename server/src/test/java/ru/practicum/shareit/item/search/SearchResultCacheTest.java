@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentEvent;
+import ru.practicum.shareit.item.event.ItemEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchResultCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final SearchResultCache cache = new SearchResultCache(meterRegistry, 2, Duration.ofSeconds(10), clock::get);
+    private final AtomicInteger searches = new AtomicInteger();
+    private final ItemDto drill = ItemDto.builder().id(1L).name("Дрель").description("Ударная").available(true).build();
+
+    @Test
+    void testHitsAndExpiry() {
+        search(SearchEngineType.SQL, "дрель");
+        search(SearchEngineType.SQL, "дрель");
+        assertEquals(1, searches.get());
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        search(SearchEngineType.SQL, "дрель");
+        assertEquals(2, searches.get());
+
+        assertEquals(1.0, counter("shareit.items.search.cache.requests", "result", "hit"));
+        assertEquals(2.0, counter("shareit.items.search.cache.requests", "result", "miss"));
+        assertEquals(1.0, counter("shareit.items.search.cache.evictions", "cause", "expired"));
+        assertEquals(1.0 / 3, meterRegistry.get("shareit.items.search.cache.hit-ratio").gauge().value(), 0.001);
+    }
+
+    @Test
+    void testSizeEviction() {
+        search(SearchEngineType.SQL, "дрель");
+        search(SearchEngineType.SQL, "пила");
+        search(SearchEngineType.SQL, "дрель");
+        search(SearchEngineType.SQL, "молоток");
+
+        assertEquals(2, cache.size());
+        search(SearchEngineType.SQL, "дрель");
+        assertEquals(3, searches.get());
+        assertEquals(1.0, counter("shareit.items.search.cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void testInvalidationByToken() {
+        search(SearchEngineType.SQL, "ударная дрель");
+        search(SearchEngineType.INDEX, "пила");
+
+        cache.onItemEvent(ItemEvent.builder().itemId(5L).name("Дрель").description("Не ударная").available(true)
+                .build());
+        assertEquals(1, cache.size());
+
+        cache.onItemEvent(ItemEvent.builder().itemId(6L).name("Ёлка").description("Искусственная").available(true)
+                .build());
+        assertEquals(1, cache.size());
+
+        cache.onItemEvent(ItemEvent.builder().itemId(7L).name("Пила").description("Ручная").available(true)
+                .build());
+        assertEquals(0, cache.size());
+        assertEquals(2.0, counter("shareit.items.search.cache.invalidations", null, null));
+    }
+
+    @Test
+    void testInvalidationByResultItem() {
+        cache.get(SearchEngineType.SQL, "дрель", 0, 10, () -> List.of(drill));
+
+        cache.onItemEvent(ItemEvent.builder().itemId(drill.getId()).deleted(true).build());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidationByComment() {
+        cache.get(SearchEngineType.SQL, "дрель", 0, 10, () -> List.of(drill));
+        search(SearchEngineType.FUZZY, "дрл");
+
+        cache.onCommentEvent(CommentEvent.builder().commentId(1L).itemId(drill.getId()).authorId(2L).build());
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testNonLexicalEnginesInvalidatedByAnyChange() {
+        search(SearchEngineType.FUZZY, "дрл");
+        search(SearchEngineType.SQL, "дрель");
+
+        cache.onItemEvent(ItemEvent.builder().itemId(8L).name("Палатка").description("Туристическая")
+                .available(true).build());
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPopularResultsInvalidatedByBookingAndComment() {
+        search(SearchEngineType.POPULAR, "дрель");
+        search(SearchEngineType.SQL, "пила");
+
+        cache.onBookingEvent(BookingEvent.builder().bookingId(1L).itemId(9L).bookerId(2L).ownerId(3L)
+                .previousStatus(BookingStatus.WAITING).status(BookingStatus.APPROVED).build());
+        assertEquals(1, cache.size());
+
+        search(SearchEngineType.POPULAR, "дрель");
+        cache.onCommentEvent(CommentEvent.builder().commentId(1L).itemId(9L).authorId(2L).build());
+        assertEquals(1, cache.size());
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("ударная дрель", SearchResultCache.normalize("  Ударная \t ДРЕЛЬ "));
+    }
+
+    private void search(SearchEngineType engine, String text) {
+        cache.get(engine, text, 0, 10, () -> {
+            searches.incrementAndGet();
+            return List.of();
+        });
+    }
+
+    private double counter(String name, String tagKey, String tagValue) {
+        return tagKey == null ? meterRegistry.get(name).counter().count()
+                : meterRegistry.get(name).tag(tagKey, tagValue).counter().count();
+    }
+}
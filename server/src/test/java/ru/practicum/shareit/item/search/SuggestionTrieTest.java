@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionTrieTest {
+    private final SuggestionTrie trie = new SuggestionTrie(2);
+
+    @Test
+    void testSuggestOrdersByPopularity() {
+        trie.put(1L, "Дрель");
+        trie.put(2L, "Дрель ударная");
+        trie.put(3L, "Диван");
+        trie.setPopularity(2L, 5);
+        trie.setPopularity(3L, 1);
+
+        assertArrayEquals(new long[]{2L, 3L}, trie.suggest("д", 10));
+        assertArrayEquals(new long[]{2L, 1L}, trie.suggest("ДРЕ", 10));
+        assertArrayEquals(new long[]{2L}, trie.suggest("дрель", 1));
+        assertArrayEquals(new long[]{2L, 3L}, trie.suggest("", 10));
+        assertArrayEquals(new long[0], trie.suggest("пила", 10));
+    }
+
+    @Test
+    void testPopularityChangeReordersSuggestions() {
+        trie.put(1L, "Палатка");
+        trie.put(2L, "Пила");
+        trie.put(3L, "Перфоратор");
+        trie.setPopularity(3L, 2);
+
+        assertArrayEquals(new long[]{3L, 1L}, trie.suggest("п", 10));
+
+        trie.setPopularity(2L, 3);
+        assertArrayEquals(new long[]{2L, 3L}, trie.suggest("п", 10));
+
+        trie.setPopularity(2L, 0);
+        trie.setPopularity(3L, 0);
+        assertArrayEquals(new long[]{1L, 2L}, trie.suggest("п", 10));
+    }
+
+    @Test
+    void testRemoveAndRename() {
+        trie.put(1L, "Ёлка искусственная");
+        trie.put(2L, "Палатка");
+
+        assertArrayEquals(new long[]{1L}, trie.suggest("ел", 10));
+        assertEquals("Ёлка искусственная", trie.nameOf(1L));
+
+        trie.put(1L, "Гирлянда");
+        assertArrayEquals(new long[0], trie.suggest("ел", 10));
+        assertArrayEquals(new long[]{1L}, trie.suggest("гир", 10));
+
+        trie.remove(1L);
+        trie.remove(2L);
+        assertArrayEquals(new long[0], trie.suggest("", 10));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void testSharedPrefixesAreCompressed() {
+        trie.put(1L, "Дрель");
+        trie.put(2L, "Дрель ударная");
+        trie.put(3L, "Дрель аккумуляторная");
+
+        assertEquals(5, trie.nodeCount());
+        assertArrayEquals(new long[]{1L, 2L}, trie.suggest("дре", 10));
+        assertArrayEquals(new long[]{2L}, trie.suggest("дрель у", 10));
+        assertArrayEquals(new long[0], trie.suggest("дрель б", 10));
+
+        trie.remove(3L);
+        assertEquals(3, trie.nodeCount());
+        trie.remove(1L);
+        assertEquals(2, trie.nodeCount());
+        assertArrayEquals(new long[]{2L}, trie.suggest("д", 10));
+    }
+
+    @Test
+    void testMatchesBruteForceUnderRandomUpdates() {
+        SuggestionTrie randomTrie = new SuggestionTrie(5);
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> popularity = new HashMap<>();
+        Random random = new Random(7);
+        for (int step = 0; step < 20_000; step++) {
+            long itemId = random.nextInt(300) + 1;
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                randomTrie.remove(itemId);
+                names.remove(itemId);
+            } else if (operation == 1) {
+                long value = random.nextInt(4);
+                randomTrie.setPopularity(itemId, value);
+                popularity.put(itemId, value);
+            } else {
+                String name = randomName(random);
+                randomTrie.put(itemId, name);
+                names.put(itemId, name);
+            }
+            if (step % 100 == 0) {
+                String prefix = randomName(random).substring(0, random.nextInt(3));
+                assertArrayEquals(expectedSuggestions(names, popularity, prefix, 5), randomTrie.suggest(prefix, 5));
+            }
+        }
+        assertEquals(names.size(), randomTrie.size());
+        assertTrue(randomTrie.nodeCount() <= 2 * names.size() + 1);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            name.append("абв".charAt(random.nextInt(3)));
+        }
+        return name.toString();
+    }
+
+    private static long[] expectedSuggestions(Map<Long, String> names, Map<Long, Long> popularity, String prefix,
+                                              int limit) {
+        return names.entrySet().stream()
+                .filter(entry -> entry.getValue().startsWith(prefix))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.<Long, Long>comparing(id -> popularity.getOrDefault(id, 0L)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+}
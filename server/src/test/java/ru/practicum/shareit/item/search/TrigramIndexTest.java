@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class TrigramIndexTest {
+    private static final double THRESHOLD = 0.3;
+    private static final String[] SYLLABLES = {"ка", "ро", "ли", "ва", "ну", "те", "мо", "ри", "ша", "до", "пе", "зу"};
+    private static final int BENCHMARK_ITEMS = 100_000;
+    private static final int BENCHMARK_QUERIES = 200;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void testSearchToleratesTypos() {
+        index.put(1L, "Дрель", "Ударная");
+        index.put(2L, "Отвертка", "Крестовая");
+        index.put(3L, "Cordless drill", "With battery");
+
+        assertEquals(List.of(1L), index.searchBySimilarity("дрел", THRESHOLD, 0, 10));
+        assertEquals(List.of(2L), index.searchBySimilarity("Отвёртко", THRESHOLD, 0, 10));
+        assertEquals(List.of(3L), index.searchBySimilarity("cordles dril", THRESHOLD, 0, 10));
+        assertEquals(List.of(), index.searchBySimilarity("перфоратор", THRESHOLD, 0, 10));
+        assertEquals(List.of(), index.searchBySimilarity("", THRESHOLD, 0, 10));
+    }
+
+    @Test
+    void testSearchRanksBySimilarityAndPaginates() {
+        index.put(1L, "Палатки", "Туристические");
+        index.put(2L, "Палатка", "Туристическая");
+        index.put(3L, "Палатка", "Двухместная");
+
+        assertEquals(List.of(2L, 3L), index.searchBySimilarity("палатка", THRESHOLD, 0, 2));
+        assertEquals(List.of(1L), index.searchBySimilarity("палатка", THRESHOLD, 2, 2));
+        assertEquals(List.of(2L, 3L), index.searchBySimilarity("палатка", 0.9, 0, 10));
+    }
+
+    @Test
+    void testRemove() {
+        index.put(1L, "Дрель", "Ударная");
+        index.put(2L, "Дрель", "Аккумуляторная");
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.searchBySimilarity("дрель", THRESHOLD, 0, 10));
+        assertEquals(List.of(), index.searchBySimilarity("ударная", THRESHOLD, 0, 10));
+        assertEquals(1, index.size());
+        assertEquals(2, index.wordCount());
+    }
+
+    @Test
+    void testSearchLatencyOnLargeCatalogue() {
+        Random random = new Random(42);
+        String[] names = new String[BENCHMARK_ITEMS];
+        for (int i = 0; i < BENCHMARK_ITEMS; i++) {
+            names[i] = word(random) + " " + word(random);
+            index.put(i, names[i], word(random) + " " + word(random) + " " + word(random));
+        }
+
+        long[] latencies = new long[BENCHMARK_QUERIES];
+        for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+            String name = names[random.nextInt(BENCHMARK_ITEMS)];
+            String misspelled = name.substring(0, name.indexOf(' ') - 1);
+            long started = System.nanoTime();
+            List<Long> found = index.searchBySimilarity(misspelled, THRESHOLD, 0, 20);
+            latencies[i] = System.nanoTime() - started;
+            assertFalse(found.isEmpty());
+        }
+        Arrays.sort(latencies);
+        log.info("Нечёткий поиск по {} вещам ({} слов): p50 {} мкс, p95 {} мкс", BENCHMARK_ITEMS, index.wordCount(),
+                latencies[BENCHMARK_QUERIES / 2] / 1000, latencies[BENCHMARK_QUERIES * 95 / 100] / 1000);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+}
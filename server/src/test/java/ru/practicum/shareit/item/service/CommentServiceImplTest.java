@@ -6,23 +6,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.CommentNotFoundException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.comment.CommentEligibility;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.event.CommentEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -34,11 +40,13 @@ public class CommentServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
     @Mock
-    private BookingRepository bookingRepository;
+    private CommentEligibility commentEligibility;
     @Mock
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private CommentServiceImpl commentService;
     private final User user = new User(1L, "user", "user@mail.ru");
@@ -53,10 +61,12 @@ public class CommentServiceImplTest {
 
     @Test
     public void testAddNewComment() {
-        when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any())).thenReturn(true);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(commentEligibility.canComment(eq(item.getId()), eq(user.getId()), any())).thenReturn(true);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(itemRepository.recordComment(eq(item.getId()), any())).thenReturn(1);
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
         when(commentRepository.save(any())).thenReturn(comment);
+        when(commentRepository.findWithItemAndAuthor(comment.getId())).thenReturn(Optional.of(comment));
 
         CommentDto addedComment = commentService.addNewComment(commentShortDto, item.getId(), user.getId());
 
@@ -65,41 +75,45 @@ public class CommentServiceImplTest {
         assertEquals(comment.getAuthor().getName(), addedComment.getAuthorName());
         assertEquals(comment.getItem().getId(), addedComment.getItem().getId());
 
-        verify(bookingRepository).existsBookingByItemAndBookerAndStatusNotAndStart(eq(item), eq(user), any());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
         verify(commentRepository).save(any());
+        verify(itemRepository).recordComment(eq(item.getId()), any());
+        verify(itemRepository).recordCommentAuthor(item.getId(), user.getId(), comment.getId());
+        verify(eventPublisher).publishEvent(any(CommentEvent.class));
     }
 
     @Test
     public void testAddNewCommentWhenItemNotFound() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(commentEligibility.canComment(eq(100L), eq(user.getId()), any())).thenReturn(false);
+        when(itemRepository.existsById(100L)).thenReturn(false);
 
         assertThrows(ItemNotFoundException.class, () -> commentService.addNewComment(commentShortDto, 100L, user.getId()));
 
-        verify(itemRepository).findById(100L);
         verify(commentRepository, never()).save(any());
     }
 
     @Test
     public void testAddNewCommentWhenUserNotFound() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(commentEligibility.canComment(eq(item.getId()), eq(100L), any())).thenReturn(false);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(userRepository.existsById(100L)).thenReturn(false);
 
         assertThrows(UserNotFoundException.class, () -> commentService.addNewComment(commentShortDto, item.getId(), 100L));
 
-        verify(userRepository).findById(100L);
         verify(commentRepository, never()).save(any());
     }
 
     @Test
     public void testAddNewCommentWithWrongBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStart(any(), any(), any())).thenReturn(false);
+        when(commentEligibility.canComment(eq(item.getId()), eq(user.getId()), any())).thenReturn(false);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(userRepository.existsById(user.getId())).thenReturn(true);
 
         assertThrows(BadRequestException.class, () -> commentService.addNewComment(commentShortDto, item.getId(), user.getId()));
 
-        verify(bookingRepository).existsBookingByItemAndBookerAndStatusNotAndStart(eq(item), eq(user), any());
         verify(commentRepository, never()).save(comment);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -118,6 +132,44 @@ public class CommentServiceImplTest {
         assertThrows(CommentNotFoundException.class, () -> commentService.getCommentById(comment.getId()));
     }
 
+    @Test
+    void testGetItemComments() {
+        CommentView view = mock(CommentView.class);
+        when(view.getId()).thenReturn(5L);
+        when(view.getText()).thenReturn("text");
+        when(view.getAuthorName()).thenReturn("user");
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findRecentByItemId(item.getId(), PageRequest.of(0, 20))).thenReturn(List.of(view));
+
+        List<CommentShortDto> comments = commentService.getItemComments(item.getId(), null, 20);
+
+        assertEquals(1, comments.size());
+        assertEquals(5L, comments.get(0).getId());
+        assertEquals("user", comments.get(0).getAuthorName());
+    }
+
+    @Test
+    void testGetItemCommentsAfterCursor() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 7L);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findRecentByItemIdBefore(item.getId(), after.getPosition(), 7L, PageRequest.of(0, 20)))
+                .thenReturn(List.of());
+
+        assertTrue(commentService.getItemComments(item.getId(), after.encode(), 20).isEmpty());
+        verify(commentRepository, never()).findRecentByItemId(anyLong(), any());
+    }
+
+    @Test
+    void testGetItemCommentsWithWrongCursorOrItem() {
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(itemRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(BadRequestException.class, () -> commentService.getItemComments(item.getId(), "???", 20));
+        assertThrows(BadRequestException.class, () ->
+                commentService.getItemComments(item.getId(), new KeysetCursor(null, 7L).encode(), 20));
+        assertThrows(ItemNotFoundException.class, () -> commentService.getItemComments(100L, null, 20));
+    }
+
     @Test
     void testCommentShortDto() {
         CommentShortDto convertedCommentDto = CommentMapper.toCommentShortDto(comment);
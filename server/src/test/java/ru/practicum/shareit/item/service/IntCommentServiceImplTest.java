@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentEligibility;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.model.Item;
@@ -16,13 +20,15 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class IntCommentServiceImplTest {
@@ -35,6 +41,10 @@ public class IntCommentServiceImplTest {
     private final BookingRepository bookingRepository;
     @Autowired
     private final CommentServiceImpl commentService;
+    @Autowired
+    private final CommentEligibility commentEligibility;
+    @Autowired
+    private final EntityManager entityManager;
     private final User user = User.builder().name("user").email("user@mail.ru").build();
     private final User booker = User.builder().name("user2").email("user2@mail.ru").build();
     private final Item item = Item.builder().name("itemName").description("item1Desc").available(true).owner(user).build();
@@ -47,6 +57,7 @@ public class IntCommentServiceImplTest {
         userRepository.save(booker);
         itemRepository.save(item);
         bookingRepository.save(booking);
+        commentEligibility.onBookingEvent(BookingMapper.toBookingEvent(booking, null));
     }
 
     @Test
@@ -69,4 +80,58 @@ public class IntCommentServiceImplTest {
         assertEquals(itemId, comment.getItem().getId());
         assertEquals(booker.getName(), comment.getAuthorName());
     }
+
+    @Test
+    @Transactional
+    public void testAddCommentStatementCount() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CommentDto comment = commentService.addNewComment(CommentShortDto.builder().text("counted").build(),
+                item.getId(), booker.getId());
+
+        assertEquals(booker.getName(), comment.getAuthorName());
+        assertEquals(item.getName(), comment.getItem().getName());
+        assertEquals(1, comment.getItem().getCommentStats().getCount());
+        assertEquals(1, comment.getItem().getCommentStats().getAuthors());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional
+    public void testAddCommentForBookingWithoutEvent() {
+        User secondBooker = userRepository.save(User.builder().name("user3").email("user3@mail.ru").build());
+        bookingRepository.save(Booking.builder().start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusHours(2)).item(item).booker(secondBooker)
+                .status(BookingStatus.APPROVED).build());
+
+        CommentDto comment = commentService.addNewComment(CommentShortDto.builder().text("from another node").build(),
+                item.getId(), secondBooker.getId());
+
+        assertEquals(secondBooker.getName(), comment.getAuthorName());
+    }
+
+    @Test
+    @Transactional
+    public void testAddCommentUpdatesItemStats() {
+        User secondBooker = userRepository.save(User.builder().name("user3").email("user3@mail.ru").build());
+        Booking secondBooking = bookingRepository.save(Booking.builder().start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusHours(2)).item(item).booker(secondBooker)
+                .status(BookingStatus.APPROVED).build());
+        commentEligibility.onBookingEvent(BookingMapper.toBookingEvent(secondBooking, null));
+
+        commentService.addNewComment(CommentShortDto.builder().text("first").build(), item.getId(), booker.getId());
+        commentService.addNewComment(CommentShortDto.builder().text("second").build(), item.getId(), booker.getId());
+        CommentDto last = commentService.addNewComment(CommentShortDto.builder().text("third").build(),
+                item.getId(), secondBooker.getId());
+        entityManager.clear();
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(3, stored.getCommentCount());
+        assertEquals(2, stored.getCommentAuthors());
+        assertTrue(Duration.between(stored.getLastCommentAt(), last.getCreated()).abs().toMillis() < 1);
+    }
 }
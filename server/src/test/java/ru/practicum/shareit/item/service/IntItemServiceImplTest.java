@@ -1,24 +1,35 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class IntItemServiceImplTest {
@@ -28,10 +39,20 @@ public class IntItemServiceImplTest {
     @Autowired
     private final UserRepository userRepository;
     @Autowired
+    private final BookingRepository bookingRepository;
+    @Autowired
+    private final CommentRepository commentRepository;
+    @Autowired
+    private final BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private final EntityManager entityManager;
+    @Autowired
     private final ItemServiceImpl itemService;
     private final User user = User.builder().name("user").email("user@mail.ru").build();
+    private final User booker = User.builder().name("booker").email("booker@mail.ru").build();
     private final Item item = Item.builder().name("itemName").description("item1Desc").available(true).owner(user).build();
     private final Item secondItem = Item.builder().name("item2Name").description("item2Desc").available(true).owner(user).build();
+    private final List<Booking> indexedBookings = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
@@ -40,9 +61,14 @@ public class IntItemServiceImplTest {
         itemRepository.save(secondItem);
     }
 
+    @AfterEach
+    void tearDown() {
+        indexedBookings.forEach(booking -> bookingIntervalIndex.remove(booking.getItem().getId(), booking.getId()));
+    }
+
     @Test
     void testGetUserItems() {
-        Collection<ItemDto> userItems = itemService.getUserItems(user.getId(), 0, 10);
+        Collection<ItemDto> userItems = itemService.getUserItems(user.getId(), 0, 10, null);
 
         assertNotNull(userItems);
         assertEquals(2, userItems.size());
@@ -61,5 +87,52 @@ public class IntItemServiceImplTest {
         assertNotNull(secondItem.getDescription());
         assertNotNull(secondItem.getAvailable());
     }
- }
+
+    @Test
+    void testGetUserItemsStatementCountDoesNotDependOnPageSize() {
+        userRepository.save(booker);
+        bookAndComment(item);
+        bookAndComment(secondItem);
+        long smallPageStatements = countStatementsOfGetUserItems(2);
+
+        for (int i = 0; i < 8; i++) {
+            bookAndComment(itemRepository.save(Item.builder().name("item" + i).description("desc" + i)
+                    .available(true).owner(user).build()));
+        }
+        long largePageStatements = countStatementsOfGetUserItems(10);
+
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    private void bookAndComment(Item bookedItem) {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = bookingRepository.save(Booking.builder().item(bookedItem).booker(booker)
+                .start(now.minusDays(2)).end(now.minusDays(1)).status(BookingStatus.APPROVED).build());
+        bookingIntervalIndex.add(bookedItem.getId(), booking.getId(), booker.getId(), booking.getStart(),
+                booking.getEnd(), booking.getStatus());
+        indexedBookings.add(booking);
+        itemRepository.recordComment(bookedItem.getId(), now);
+        Comment comment = commentRepository.save(Comment.builder().item(bookedItem).author(booker).text("comment")
+                .created(now).build());
+        itemRepository.recordCommentAuthor(bookedItem.getId(), booker.getId(), comment.getId());
+    }
+
+    private long countStatementsOfGetUserItems(int expectedItems) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Collection<ItemDto> userItems = itemService.getUserItems(user.getId(), 0, 10, null);
+
+        assertEquals(expectedItems, userItems.size());
+        userItems.forEach(itemDto -> {
+            assertEquals(1, itemDto.getComments().size());
+            assertEquals(1, itemDto.getCommentStats().getCount());
+            assertEquals(1, itemDto.getCommentStats().getAuthors());
+            assertNotNull(itemDto.getLastBooking());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+}
 
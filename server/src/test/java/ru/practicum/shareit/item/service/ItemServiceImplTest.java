@@ -3,25 +3,42 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.nearest.NearestBookingSource;
+import ru.practicum.shareit.booking.nearest.NearestBookings;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.comment.RecentComments;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.CommentStatsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.event.ItemEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngineSelector;
+import ru.practicum.shareit.item.search.ItemSuggestionIndex;
+import ru.practicum.shareit.item.search.SearchEngineType;
+import ru.practicum.shareit.item.search.SearchResultCache;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.mockito.Mockito.*;
@@ -35,11 +52,23 @@ public class ItemServiceImplTest {
     @Mock
     UserRepository userRepository;
     @Mock
-    BookingRepository bookingRepository;
-    @Mock
-    CommentRepository commentRepository;
+    RecentComments recentComments;
     @Mock
     ItemRequestRepository requestRepository;
+    @Mock
+    BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    NearestBookingSource nearestBookingSource;
+    @Mock
+    ItemSearchEngineSelector searchEngineSelector;
+    @Mock
+    ItemSearchEngine searchEngine;
+    @Mock
+    ItemSuggestionIndex suggestionIndex;
+    @Spy
+    SearchResultCache searchResultCache = new SearchResultCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    @Mock
+    ApplicationEventPublisher eventPublisher;
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -68,6 +97,7 @@ public class ItemServiceImplTest {
         verify(userRepository).findById(user.getId());
         verify(requestRepository).findById(itemDto.getRequestId());
         verify(itemRepository).save(item);
+        verify(eventPublisher).publishEvent(any(ItemEvent.class));
     }
 
     @Test
@@ -78,6 +108,7 @@ public class ItemServiceImplTest {
 
         verify(userRepository).findById(100L);
         verify(itemRepository, never()).save(any(Item.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -113,28 +144,50 @@ public class ItemServiceImplTest {
         int size = 10;
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findByOwner(user, PageRequest.of(from, size))).thenReturn(items);
-        when(commentRepository.findByItemOrderByIdAsc(item)).thenReturn(Collections.emptyList());
-        when(commentRepository.findByItemOrderByIdAsc(secondItem)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItem(item)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItem(secondItem)).thenReturn(Collections.emptyList());
+        when(itemRepository.findByOwnerOrderByNextBooking(eq(user), any(LocalDateTime.class), isNull(),
+                eq(PageRequest.of(from, size)))).thenReturn(items);
+        when(recentComments.forItems(List.of(item.getId(), secondItem.getId()))).thenReturn(Collections.emptyMap());
 
-        Collection<ItemDto> userItems = itemService.getUserItems(userId, from, size);
+        List<ItemDto> userItems = itemService.getUserItems(userId, from, size, null);
 
         assertNotNull(userItems);
         assertEquals(2, userItems.size());
+        assertEquals(item.getId(), userItems.get(0).getId());
 
         verify(userRepository).findById(userId);
-        verify(itemRepository).findByOwner(user, PageRequest.of(0, size));
-        verify(commentRepository, times(2)).findByItemOrderByIdAsc(any(Item.class));
-        verify(bookingRepository, times(2)).findByItem(any(Item.class));
+        verify(itemRepository).findByOwnerOrderByNextBooking(eq(user), any(LocalDateTime.class), isNull(),
+                eq(PageRequest.of(0, size)));
+        verify(recentComments).forItems(List.of(item.getId(), secondItem.getId()));
+        verify(nearestBookingSource).findNearest(eq(List.of(item.getId(), secondItem.getId())), any(LocalDateTime.class));
+        verifyNoMoreInteractions(recentComments);
+    }
+
+    @Test
+    void testGetUserItemsAfterCursor() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 7L);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findByOwnerOrderByNextBooking(eq(user), any(LocalDateTime.class), eq(after),
+                eq(PageRequest.of(0, 10)))).thenReturn(Collections.emptyList());
+
+        assertTrue(itemService.getUserItems(user.getId(), 20, 10, after.encode()).isEmpty());
+
+        verifyNoInteractions(recentComments, nearestBookingSource);
+    }
+
+    @Test
+    void testGetUserItemsWithWrongCursor() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThrows(BadRequestException.class, () -> itemService.getUserItems(user.getId(), 0, 10, "???"));
+
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void testGetUserItemsWithWrongUser() {
         when(userRepository.findById(100L)).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> itemService.getUserItems(100L, 0, 10));
+        assertThrows(UserNotFoundException.class, () -> itemService.getUserItems(100L, 0, 10, null));
 
         verify(userRepository).findById(100L);
     }
@@ -143,22 +196,27 @@ public class ItemServiceImplTest {
     void testGetItemById() {
         Item item = Item.builder().id(1L).name("item2Name").description("item2Desc").available(true)
                 .owner(user).requestId(1L).build();
-        List<Comment> comments = new ArrayList<>();
-        List<Booking> bookings = new ArrayList<>();
+        List<CommentShortDto> comments = List.of(CommentShortDto.builder().id(1L).text("comment")
+                .itemId(item.getId()).authorName("user").created(LocalDateTime.now()).build());
+        LocalDateTime now = LocalDateTime.now();
+        BookingShortDto lastBooking = BookingShortDto.builder().id(1L).start(now.minusDays(2)).end(now.minusDays(1))
+                .itemId(item.getId()).bookerId(2L).status("APPROVED").build();
+        BookingShortDto nextBooking = BookingShortDto.builder().id(2L).start(now.plusDays(1)).end(now.plusDays(2))
+                .itemId(item.getId()).bookerId(2L).status("WAITING").build();
 
-        ItemDto expectedItemDto = ItemMapper.toItemDto(item, comments, bookings);
+        ItemDto expectedItemDto = ItemMapper.toItemDto(item, comments, lastBooking, nextBooking);
 
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemOrderByIdAsc(item)).thenReturn(comments);
-        when(bookingRepository.findByItem(item)).thenReturn(bookings);
+        when(recentComments.forItem(item.getId())).thenReturn(comments);
+        when(nearestBookingSource.findNearest(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), new NearestBookings(lastBooking, nextBooking)));
 
         ItemDto actualItemDto = itemService.getItemById(item.getId(), user.getId());
 
         assertEquals(expectedItemDto, actualItemDto);
         verify(itemRepository).findById(item.getId());
-        verify(commentRepository).findByItemOrderByIdAsc(item);
-        verify(bookingRepository).findByItem(item);
-        verifyNoMoreInteractions(itemRepository, commentRepository, bookingRepository);
+        verify(recentComments).forItem(item.getId());
+        verifyNoMoreInteractions(itemRepository, recentComments);
     }
 
     @Test
@@ -171,22 +229,28 @@ public class ItemServiceImplTest {
     }
 
     @Test
-    void testFindAllItems() {
-        when(itemRepository.findAll()).thenReturn(List.of(ItemMapper.toItem(itemDto)));
+    void testFindAllAfter() {
+        List<Item> items = List.of(ItemMapper.toItem(itemDto));
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10))).thenReturn(items);
+        when(recentComments.forItems(List.of(itemDto.getId()))).thenReturn(Collections.emptyMap());
 
-        Collection<ItemDto> allDtoItems = itemService.findAll();
+        List<ItemDto> allDtoItems = itemService.findAllAfter(0L, 10);
 
-        assertFalse(allDtoItems.isEmpty());
         assertEquals(1, allDtoItems.size());
+        assertNull(allDtoItems.get(0).getLastBooking());
+        assertNull(allDtoItems.get(0).getNextBooking());
+        verify(itemRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10));
+        verifyNoInteractions(nearestBookingSource);
     }
 
     @Test
-    void testFindAllItemsWithEmptyList() {
-        when(itemRepository.findAll()).thenReturn(Collections.emptyList());
+    void testFindAllAfterLastItem() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(5L, PageRequest.of(0, 10))).thenReturn(Collections.emptyList());
 
-        Collection<ItemDto> allDtoItems = itemService.findAll();
+        List<ItemDto> allDtoItems = itemService.findAllAfter(5L, 10);
 
         assertTrue(allDtoItems.isEmpty());
+        verifyNoInteractions(recentComments, nearestBookingSource);
     }
 
     @Test
@@ -208,7 +272,8 @@ public class ItemServiceImplTest {
         assertEquals("Updated Description", item.getDescription());
         verify(itemRepository).findById(itemId);
         verify(itemRepository).save(item);
-        verifyNoMoreInteractions(itemRepository, commentRepository, bookingRepository, userRepository);
+        verify(eventPublisher).publishEvent(any(ItemEvent.class));
+        verifyNoMoreInteractions(itemRepository, recentComments, userRepository);
     }
 
     @Test
@@ -238,32 +303,128 @@ public class ItemServiceImplTest {
         assertThrows(ItemNotFoundException.class, () -> itemService.getItemById(1L, 1L));
 
         verify(itemRepository, times(1)).deleteById(item.getId());
+        verify(eventPublisher).publishEvent(argThat((ItemEvent event) -> event.isDeleted()
+                && event.getItemId().equals(item.getId())));
     }
 
     @Test
     void searchItem() {
         ItemDto itemDtoForSearch = ItemDto.builder().id(2L).name("Щетка для обуви").description("Хорошо чистит")
-            .available(true).build();
+            .available(true).commentStats(CommentStatsDto.builder().count(0L).authors(0L).build()).build();
         Item itemForSearch = Item.builder().id(2L).name("Щетка для обуви").description("Хорошо чистит")
             .available(true).build();
 
-        when(itemRepository.search("щетка", PageRequest.of(0, 10, Sort.by("name").ascending())))
-            .thenReturn(List.of(itemForSearch));
+        when(searchEngineSelector.select(null)).thenReturn(searchEngine);
+        when(searchEngine.search("щетка", PageRequest.of(0, 10))).thenReturn(List.of(itemForSearch));
 
-        Collection<ItemDto> actualItems = itemService.searchItem("щетка", 0, 10);
+        Collection<ItemDto> actualItems = itemService.searchItem("щетка", null, null, 0, 10, null);
 
         assertEquals(1, actualItems.size());
         assertTrue(actualItems.contains(itemDtoForSearch));
 
-        verify(itemRepository).search("щетка", PageRequest.of(0, 10, Sort.by("name").ascending()));
+        verify(searchEngine).search("щетка", PageRequest.of(0, 10));
+        verifyNoInteractions(itemRepository);
     }
-}
 
+    @Test
+    void searchItemFromCache() {
+        Item itemForSearch = Item.builder().id(2L).name("Щетка для обуви").description("Хорошо чистит")
+            .available(true).build();
+        when(searchEngineSelector.select(null)).thenReturn(searchEngine);
+        when(searchEngine.type()).thenReturn(SearchEngineType.SQL);
+        when(searchEngine.search("щетка", PageRequest.of(0, 10))).thenReturn(List.of(itemForSearch));
+
+        Collection<ItemDto> firstItems = itemService.searchItem("щетка", null, null, 0, 10, null);
+        Collection<ItemDto> cachedItems = itemService.searchItem("  ЩЕТКА ", null, null, 0, 10, null);
+
+        assertEquals(firstItems, cachedItems);
+        verify(searchEngine, times(1)).search("щетка", PageRequest.of(0, 10));
+    }
+
+    @Test
+    void searchItemWithUnknownEngine() {
+        when(searchEngineSelector.select("lucene")).thenThrow(new BadRequestException("Неизвестный поисковый движок: lucene"));
+
+        assertThrows(BadRequestException.class, () -> itemService.searchItem("щетка", null, null, 0, 10, "lucene"));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void testSuggestItems() {
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto(2L, "Щетка для обуви"));
+        when(suggestionIndex.suggest("щет", 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, itemService.suggestItems("щет", 5));
+    }
+
+    @Test
+    void testSuggestItemsWithBlankPrefix() {
+        assertTrue(itemService.suggestItems(" ", 5).isEmpty());
+        verifyNoInteractions(suggestionIndex);
+    }
+
+    @Test
+    void testGetItemAvailability() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(1);
+        List<AvailabilityWindowDto> windows = List.of(new AvailabilityWindowDto(from, to));
+        when(bookingIntervalIndex.hasBookings(1L)).thenReturn(true);
+        when(bookingIntervalIndex.freeWindows(1L, from, to)).thenReturn(windows);
+
+        assertEquals(windows, itemService.getItemAvailability(1L, from, to));
+        verify(itemRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void testGetItemAvailabilityWithoutBookings() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(1);
+        List<AvailabilityWindowDto> windows = List.of(new AvailabilityWindowDto(from, to));
+        when(bookingIntervalIndex.hasBookings(1L)).thenReturn(false);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingIntervalIndex.freeWindows(1L, from, to)).thenReturn(windows);
+
+        assertEquals(windows, itemService.getItemAvailability(1L, from, to));
+    }
 
+    @Test
+    void testGetItemAvailabilityWithWrongItem() {
+        LocalDateTime from = LocalDateTime.now();
+        when(bookingIntervalIndex.hasBookings(100L)).thenReturn(false);
+        when(itemRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getItemAvailability(100L, from, from.plusDays(1)));
+        verify(bookingIntervalIndex, never()).freeWindows(anyLong(), any(), any());
+    }
 
+    @Test
+    void testGetItemAvailabilityWithWrongPeriod() {
+        LocalDateTime from = LocalDateTime.now();
 
+        assertThrows(BadRequestException.class, () -> itemService.getItemAvailability(1L, from, from.minusDays(1)));
+    }
+
+    @Test
+    void searchAvailableItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        Item itemForSearch = Item.builder().id(2L).name("Щетка для обуви").description("Хорошо чистит")
+            .available(true).build();
+        PageRequest page = PageRequest.of(0, 10, Sort.by("name").ascending());
 
+        when(itemRepository.searchAvailable("щетка", start, end, page)).thenReturn(List.of(itemForSearch));
 
+        Collection<ItemDto> actualItems = itemService.searchItem("щетка", start, end, 0, 10, null);
 
+        assertEquals(1, actualItems.size());
+        verifyNoInteractions(searchEngineSelector);
+    }
 
+    @Test
+    void searchAvailableItemWithWrongPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
 
+        assertThrows(BadRequestException.class, () -> itemService.searchItem("щетка", start, null, 0, 10, null));
+        assertThrows(BadRequestException.class, () -> itemService.searchItem("щетка", start, start.minusHours(1), 0, 10, null));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemCatalogueWriterTest {
+    @Mock
+    private ItemService itemService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testWriteAllReadsCatalogueChunkByChunk() throws Exception {
+        ItemCatalogueWriter writer = new ItemCatalogueWriter(itemService, objectMapper, 2);
+        ItemDto first = ItemDto.builder().id(1L).name("first").build();
+        ItemDto second = ItemDto.builder().id(4L).name("second").build();
+        ItemDto third = ItemDto.builder().id(7L).name("third").build();
+        when(itemService.findAllAfter(0L, 2)).thenReturn(List.of(first, second));
+        when(itemService.findAllAfter(4L, 2)).thenReturn(List.of(third));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.writeAll(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(objectMapper.writeValueAsString(third), lines[2]);
+        verify(itemService, times(2)).findAllAfter(anyLong(), eq(2));
+    }
+
+    @Test
+    void testWriteAllStopsOnEmptyChunk() throws Exception {
+        ItemCatalogueWriter writer = new ItemCatalogueWriter(itemService, objectMapper, 1);
+        when(itemService.findAllAfter(0L, 1)).thenReturn(List.of(ItemDto.builder().id(3L).build()));
+        when(itemService.findAllAfter(3L, 1)).thenReturn(List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.writeAll(out);
+
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        verify(itemService, times(2)).findAllAfter(anyLong(), eq(1));
+    }
+}